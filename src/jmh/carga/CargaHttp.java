@@ -0,0 +1,88 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga HTTP em laço fechado: cada cliente (uma virtual thread) repete o GET assim que recebe a
+ * resposta anterior. Requisições do aquecimento não entram na medição; respostas 4xx/5xx e falhas
+ * contam como erro e ficam fora das latências.
+ * <p>
+ * Uso: java CargaHttp.java URL concorrencia segundos [aquecimento] [email]
+ */
+public class CargaHttp {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Uso: java CargaHttp.java URL concorrencia segundos [aquecimento] [email]");
+            System.exit(2);
+        }
+        String url = args[0];
+        int concorrencia = Integer.parseInt(args[1]);
+        int segundos = Integer.parseInt(args[2]);
+        int aquecimento = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        String email = args.length > 4 ? args[4] : "carga@teste.com";
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(url))
+                .header("X-User-Email", email)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        long inicioMedicao = System.nanoTime() + Duration.ofSeconds(aquecimento).toNanos();
+        long fim = inicioMedicao + Duration.ofSeconds(segundos).toNanos();
+        ConcurrentLinkedQueue<long[]> latencias = new ConcurrentLinkedQueue<>();
+        AtomicLong erros = new AtomicLong();
+
+        List<Thread> clientes = new ArrayList<>();
+        for (int i = 0; i < concorrencia; i++) {
+            clientes.add(Thread.ofVirtual().start(() -> {
+                long[] medidas = new long[20_000];
+                int n = 0;
+                while (System.nanoTime() < fim) {
+                    long inicio = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    if (inicio < inicioMedicao) {
+                        continue;
+                    }
+                    if (!ok) {
+                        erros.incrementAndGet();
+                    } else if (n < medidas.length) {
+                        medidas[n++] = System.nanoTime() - inicio;
+                    }
+                }
+                latencias.add(Arrays.copyOf(medidas, n));
+            }));
+        }
+        for (Thread t : clientes) {
+            t.join();
+        }
+
+        long[] todas = latencias.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        if (todas.length == 0) {
+            System.out.printf("c=%d nenhuma resposta bem-sucedida, erros=%d%n", concorrencia, erros.get());
+            return;
+        }
+        System.out.printf("c=%d req/s=%.0f p50=%.1fms p99=%.1fms max=%.1fms erros=%d%n", concorrencia,
+                todas.length / (double) segundos,
+                todas[todas.length / 2] / 1e6,
+                todas[(int) (todas.length * 0.99)] / 1e6,
+                todas[todas.length - 1] / 1e6,
+                erros.get());
+    }
+}
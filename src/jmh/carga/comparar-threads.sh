@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compara threads de plataforma e virtuais sob carga na listagem paginada.
+# Uso: src/jmh/carga/comparar-threads.sh <true|false> [niveis de concorrencia...]
+# Requer o jar empacotado (mvn -DskipTests package) e o PostgreSQL de application.properties.
+set -euo pipefail
+
+VIRTUAL=${1:?informe true (threads virtuais) ou false (plataforma)}
+shift
+NIVEIS=${*:-50 400 1000}
+BASE=${BASE:-http://localhost:8080}
+SEGUNDOS=${SEGUNDOS:-20}
+AQUECIMENTO=${AQUECIMENTO:-5}
+ITENS=${ITENS:-1000}
+EMAIL=carga-$(date +%s)@teste.com
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+RAIZ=$(cd "$DIR/../../.." && pwd)
+JAR=$(ls "$RAIZ"/target/ControlaStock-*.jar | grep -v plain | head -1)
+
+java -jar "$JAR" --spring.threads.virtual.enabled="$VIRTUAL" > "$RAIZ/target/carga-app.log" 2>&1 &
+APP=$!
+trap 'kill $APP 2>/dev/null; wait $APP 2>/dev/null || true' EXIT
+
+until curl -sf "$BASE/actuator/health" > /dev/null; do
+    kill -0 $APP 2>/dev/null || { echo "aplicação não subiu, veja target/carga-app.log" >&2; exit 1; }
+    sleep 1
+done
+
+CNPJ=$(printf '%014d' $((RANDOM * RANDOM)))
+curl -sf -XPOST "$BASE/auth/registrar" -H 'Content-Type: application/json' -o /dev/null \
+    -d "{\"nome\":\"Carga\",\"cnpj\":\"$CNPJ\",\"cep\":\"01001000\",\"email\":\"$EMAIL\",\"senha\":\"123456\"}"
+
+# Mesma massa usada nos números do README: quantidades 0..99 em 20 localizações
+{
+    echo "nome,descricao,quantidade,localizacao"
+    for ((i = 0; i < ITENS; i++)); do
+        echo "Item $i,descricao $i,$((i % 100)),L$((i % 20))"
+    done
+} | curl -sf -XPOST "$BASE/api/inventario/importar" -H "X-User-Email: $EMAIL" \
+    -H 'Content-Type: text/csv' --data-binary @- -o /dev/null
+
+for c in $NIVEIS; do
+    echo -n "virtual=$VIRTUAL "
+    java "$DIR/CargaHttp.java" "$BASE/api/inventario/pagina?limite=50" "$c" "$SEGUNDOS" "$AQUECIMENTO" "$EMAIL"
+    echo "    threads=$(awk '/^Threads/ {print $2}' /proc/$APP/status) rss=$(awk '/^VmRSS/ {print $2}' /proc/$APP/status)kB"
+done
@@ -0,0 +1,170 @@
+package com.senac.ControlaStock.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * Inicialização de cada modo de execução: tempo do início do processo até a primeira resposta HTTP
+ * (/actuator/health, qualquer status) e memória residente (VmRSS) nesse momento. Não é JMH: cada
+ * medida é um processo novo. Só entram os modos cujos artefatos existem (mvn -Paot,cds package para
+ * os modos da JVM, mvn -Pnative native:compile para o nativo).
+ *
+ * <p>Propriedades: inicializacao.jar, inicializacao.cds (diretório do jar extraído e do arquivo CDS),
+ * inicializacao.nativo (executável), inicializacao.repeticoes, inicializacao.argumentos (passados
+ * à aplicação, separados por espaço) e inicializacao.timeout (segundos por execução).
+ */
+public class InicializacaoBenchmark {
+
+    private static final String CLASSE_AOT = "BOOT-INF/classes/com/senac/ControlaStock/ControlaStockApplication__ApplicationContextInitializer.class";
+
+    private record Medida(long milissegundos, long rssKb) {}
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("inicializacao.jar", "target/ControlaStock-0.0.1-SNAPSHOT.jar"));
+        Path cds = Path.of(System.getProperty("inicializacao.cds", "target/cds"));
+        Path nativo = Path.of(System.getProperty("inicializacao.nativo", "target/ControlaStock"));
+        int repeticoes = Integer.parseInt(System.getProperty("inicializacao.repeticoes", "5"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(System.getProperty("inicializacao.timeout", "120")));
+        List<String> argumentos = Arrays.stream(System.getProperty("inicializacao.argumentos", "").trim().split("\\s+"))
+                .filter(argumento -> !argumento.isEmpty())
+                .toList();
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path jarCds = cds.resolve(jar.getFileName());
+        Path arquivoCds = cds.resolve("application.jsa");
+        boolean temAot = Files.exists(jar) && contemAot(jar);
+
+        Map<String, List<String>> modos = new LinkedHashMap<>();
+        if (Files.exists(jar)) {
+            modos.put("jvm", List.of(java, "-jar", jar.toString()));
+            if (temAot) {
+                modos.put("jvm-aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", jar.toString()));
+            }
+        }
+        if (Files.exists(jarCds) && Files.exists(arquivoCds)) {
+            String compartilhado = "-XX:SharedArchiveFile=" + arquivoCds;
+            // O arquivo CDS só vale para o caminho (com ou sem AOT) usado no treino
+            if (temAot) {
+                modos.put("jvm-aot-cds", List.of(java, compartilhado, "-Dspring.aot.enabled=true", "-jar", jarCds.toString()));
+            } else {
+                modos.put("jvm-cds", List.of(java, compartilhado, "-jar", jarCds.toString()));
+            }
+        }
+        if (Files.isExecutable(nativo)) {
+            modos.put("native", List.of(nativo.toString()));
+        }
+        if (modos.isEmpty()) {
+            System.err.println("Nenhum artefato encontrado: rode mvn package (com -Paot,cds) ou mvn -Pnative native:compile antes");
+            System.exit(1);
+        }
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        Map<String, List<Medida>> resultados = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> modo : modos.entrySet()) {
+            List<Medida> medidas = new ArrayList<>();
+            for (int i = 0; i < repeticoes; i++) {
+                List<String> comando = new ArrayList<>(modo.getValue());
+                comando.addAll(argumentos);
+                medidas.add(medir(modo.getKey(), comando, http, timeout));
+                System.out.printf("%-12s #%d  %6d ms  %7.1f MB%n", modo.getKey(), i + 1,
+                        medidas.getLast().milissegundos(), medidas.getLast().rssKb() / 1024.0);
+            }
+            resultados.put(modo.getKey(), medidas);
+        }
+
+        System.out.println();
+        System.out.printf("%-12s %12s %12s %14s%n", "modo", "mediana (ms)", "min (ms)", "RSS med. (MB)");
+        resultados.forEach((modo, medidas) -> System.out.printf("%-12s %12d %12d %14.1f%n", modo,
+                mediana(medidas.stream().mapToLong(Medida::milissegundos).toArray()),
+                medidas.stream().mapToLong(Medida::milissegundos).min().orElseThrow(),
+                mediana(medidas.stream().mapToLong(Medida::rssKb).toArray()) / 1024.0));
+    }
+
+    private static Medida medir(String modo, List<String> comando, HttpClient http, Duration timeout) throws Exception {
+        int porta = portaLivre();
+        List<String> completo = new ArrayList<>(comando);
+        completo.add("--server.port=" + porta);
+        File log = new File(System.getProperty("java.io.tmpdir"), "inicializacao-" + modo + ".log");
+
+        HttpRequest saude = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/actuator/health"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        long inicio = System.nanoTime();
+        Process processo = new ProcessBuilder(completo).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            while (true) {
+                if (!processo.isAlive()) {
+                    throw new IllegalStateException("O modo " + modo + " terminou antes de responder; veja " + log);
+                }
+                if (System.nanoTime() - inicio > timeout.toNanos()) {
+                    throw new IllegalStateException("O modo " + modo + " não respondeu em " + timeout + "; veja " + log);
+                }
+                try {
+                    http.send(saude, HttpResponse.BodyHandlers.discarding());
+                    break;
+                } catch (IOException ainda) {
+                    Thread.sleep(5);
+                }
+            }
+            long milissegundos = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            return new Medida(milissegundos, rssKb(processo.pid()));
+        } finally {
+            processo.destroy();
+            if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+                processo.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // VmRSS do /proc (Linux); em outros sistemas a memória sai como zero
+    private static long rssKb(long pid) {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        try {
+            return Files.readAllLines(status).stream()
+                    .filter(linha -> linha.startsWith("VmRSS:"))
+                    .map(linha -> linha.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean contemAot(Path jar) throws IOException {
+        try (JarFile arquivo = new JarFile(jar.toFile())) {
+            return arquivo.getEntry(CLASSE_AOT) != null;
+        }
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long mediana(long[] valores) {
+        long[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+}
@@ -0,0 +1,106 @@
+package com.senac.ControlaStock.benchmark;
+
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioRequestDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioResponseDto;
+import com.senac.ControlaStock.application.services.ItemInventarioService;
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.infra.persistencia.memoria.ItemInventarioRepositoryEmMemoria;
+import com.senac.ControlaStock.infra.persistencia.memoria.VersaoInventarioRepositoryEmMemoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões entre entidade e DTO do ItemInventarioService (toEntity/toResponseDto), medidas pelos
+ * métodos públicos que as usam. Os repositórios são os do perfil memoria, então o custo medido é
+ * o do serviço e dos índices em memória, sem banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemInventarioServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int quantidadeItens;
+
+    private ItemInventarioService service;
+    private ItemInventarioService serviceEscrita;
+    private Usuario usuario;
+    private ItemInventarioRequestDto requestDto;
+    private Long idExistente;
+    private ItemInventarioRepositoryEmMemoria itensEscrita;
+
+    @Setup
+    public void preparar() {
+        ItemInventarioRepositoryEmMemoria repository = new ItemInventarioRepositoryEmMemoria();
+        VersaoInventarioRepositoryEmMemoria versoes = new VersaoInventarioRepositoryEmMemoria();
+        ReflectionTestUtils.setField(repository, "versaoInventarioRepository", versoes);
+        service = new ItemInventarioService();
+        ReflectionTestUtils.setField(service, "itemInventarioRepository", repository);
+        ReflectionTestUtils.setField(service, "versaoInventarioRepository", versoes);
+        itensEscrita = new ItemInventarioRepositoryEmMemoria();
+        VersaoInventarioRepositoryEmMemoria versoesEscrita = new VersaoInventarioRepositoryEmMemoria();
+        ReflectionTestUtils.setField(itensEscrita, "versaoInventarioRepository", versoesEscrita);
+        serviceEscrita = new ItemInventarioService();
+        ReflectionTestUtils.setField(serviceEscrita, "itemInventarioRepository", itensEscrita);
+        ReflectionTestUtils.setField(serviceEscrita, "versaoInventarioRepository", versoesEscrita);
+        // Sem listeners: mede só o serviço, não a gravação do histórico
+        ReflectionTestUtils.setField(serviceEscrita, "eventPublisher", (ApplicationEventPublisher) evento -> {
+        });
+
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("benchmark@controlastock.com");
+
+        for (int i = 0; i < quantidadeItens; i++) {
+            ItemInventario item = new ItemInventario();
+            item.setNome("Item " + i);
+            item.setDescricao("Descrição do item " + i);
+            item.setQuantidade(i);
+            item.setLocalizacao("Prateleira " + (i % 20));
+            item.setUsuario(usuario);
+            idExistente = repository.save(item).getId();
+        }
+
+        requestDto = new ItemInventarioRequestDto("Parafuso", "Parafuso sextavado M8", 100, null, null, null);
+    }
+
+    // Os itens criados não se acumulam no heap ao longo das iterações
+    @Setup(Level.Iteration)
+    public void limparEscritas() {
+        itensEscrita.deleteAll();
+    }
+
+    @Benchmark
+    public ItemInventarioResponseDto buscarPorId() {
+        return service.buscarPorId(idExistente, usuario);
+    }
+
+    @Benchmark
+    public List<ItemInventarioResponseDto> listarTodos() {
+        return service.listarTodos(usuario);
+    }
+
+    @Benchmark
+    public ItemInventarioResponseDto criarItem() {
+        return serviceEscrita.criarItem(requestDto, usuario);
+    }
+}
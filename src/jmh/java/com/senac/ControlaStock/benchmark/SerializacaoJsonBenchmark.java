@@ -0,0 +1,59 @@
+package com.senac.ControlaStock.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização da listagem de itens (List&lt;ItemInventarioResponseDto&gt;) com um ObjectMapper
+ * configurado como o do Spring MVC, em tamanhos típicos de página e de listagem completa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoJsonBenchmark {
+
+    @Param({"1", "50", "500", "5000"})
+    private int quantidadeItens;
+
+    private ObjectWriter writer;
+    private List<ItemInventarioResponseDto> itens;
+
+    @Setup
+    public void preparar() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ItemInventarioResponseDto.class));
+
+        itens = new ArrayList<>(quantidadeItens);
+        for (int i = 0; i < quantidadeItens; i++) {
+            itens.add(new ItemInventarioResponseDto((long) i, "Item " + i, "Descrição do item " + i,
+                    i % 1000, "Prateleira " + (i % 20), i % 3 == 0 ? 10 : null, 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws JsonProcessingException {
+        return writer.writeValueAsBytes(itens);
+    }
+}
@@ -0,0 +1,87 @@
+package com.senac.ControlaStock.benchmark;
+
+import com.senac.ControlaStock.application.services.TokenService;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.repository.TokenRepository;
+import com.senac.ControlaStock.infra.persistencia.memoria.TokenRepositoryEmMemoria;
+import com.senac.ControlaStock.infra.persistencia.memoria.UsuarioRepositoryEmMemoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e validação de JWT. A validação é medida com o cache de tokens validados (caso comum,
+ * mesmo token a cada requisição) e sem ele (verificação HMAC + consulta ao repositório). A emissão
+ * inclui a revogação dos excedentes, então os tokens do emissor nunca passam do limite por usuário.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String SEGREDO = "asdfghjklzxcvbnm1234567890abcdefghijklmnopqrstuvwxyz";
+
+    private TokenService emissor;
+    private TokenService validadorComCache;
+    private TokenService validadorSemCache;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("benchmark@controlastock.com");
+
+        emissor = criarService(new TokenRepositoryEmMemoria(), Duration.ofMinutes(5));
+
+        TokenRepository tokens = new TokenRepositoryEmMemoria();
+        validadorComCache = criarService(tokens, Duration.ofMinutes(5));
+        // TTL zero: toda entrada já nasce vencida, então cada chamada refaz a verificação completa
+        validadorSemCache = criarService(tokens, Duration.ZERO);
+        token = validadorComCache.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return emissor.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String validarTokenComCache() {
+        return validadorComCache.validarToken(token);
+    }
+
+    @Benchmark
+    public String validarTokenSemCache() {
+        return validadorSemCache.validarToken(token);
+    }
+
+    private TokenService criarService(TokenRepository tokens, Duration ttlMaximoCache) {
+        TokenService service = new TokenService();
+        ReflectionTestUtils.setField(service, "secret", SEGREDO);
+        ReflectionTestUtils.setField(service, "tempo_expiracao", 300_000L);
+        ReflectionTestUtils.setField(service, "tamanhoMaximoCache", 10_000L);
+        ReflectionTestUtils.setField(service, "ttlMaximoCache", ttlMaximoCache);
+        ReflectionTestUtils.setField(service, "maximoPorUsuario", 10);
+        ReflectionTestUtils.setField(service, "tamanhoLoteLimpeza", 1000);
+        ReflectionTestUtils.setField(service, "tokenRepository", tokens);
+        ReflectionTestUtils.setField(service, "usuarioRepository", new UsuarioRepositoryEmMemoria());
+        ReflectionTestUtils.invokeMethod(service, "inicializar");
+        return service;
+    }
+}
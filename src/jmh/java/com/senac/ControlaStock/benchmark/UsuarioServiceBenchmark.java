@@ -0,0 +1,62 @@
+package com.senac.ControlaStock.benchmark;
+
+import com.senac.ControlaStock.application.dto.usuario.UsuarioRequestDto;
+import com.senac.ControlaStock.application.dto.usuario.UsuarioResponseDto;
+import com.senac.ControlaStock.application.services.UsuarioCache;
+import com.senac.ControlaStock.application.services.UsuarioService;
+import com.senac.ControlaStock.domain.repository.UsuarioRepository;
+import com.senac.ControlaStock.infra.persistencia.memoria.UsuarioRepositoryEmMemoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadastro de usuário, dominado pelo BCrypt com o custo padrão do BCryptPasswordEncoder (o mesmo
+ * bean da SecurityConfiguration). Cada chamada usa email e CNPJ novos para não cair nas restrições de unicidade.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsuarioServiceBenchmark {
+
+    private UsuarioService service;
+    private long sequencia;
+
+    @Setup
+    public void preparar() {
+        UsuarioRepository usuarios = new UsuarioRepositoryEmMemoria();
+
+        UsuarioCache usuarioCache = new UsuarioCache();
+        ReflectionTestUtils.setField(usuarioCache, "usuarioRepository", usuarios);
+        ReflectionTestUtils.setField(usuarioCache, "tamanhoMaximo", 10_000L);
+        ReflectionTestUtils.setField(usuarioCache, "ttl", Duration.ofMinutes(2));
+        ReflectionTestUtils.invokeMethod(usuarioCache, "inicializar");
+
+        service = new UsuarioService();
+        ReflectionTestUtils.setField(service, "usuarioRepository", usuarios);
+        ReflectionTestUtils.setField(service, "passwordEncoder", new BCryptPasswordEncoder());
+        ReflectionTestUtils.setField(service, "usuarioCache", usuarioCache);
+    }
+
+    @Benchmark
+    public UsuarioResponseDto criarUsuario() {
+        long n = ++sequencia;
+        return service.criarUsuario(new UsuarioRequestDto(
+                "Empresa " + n, String.format("%014d", n), "01001000", "usuario" + n + "@controlastock.com", "senha123"));
+    }
+}
@@ -0,0 +1,13 @@
+package com.senac.ControlaStock.application.dto.alerta;
+
+import java.time.Instant;
+
+public record AlertaEstoqueDto(
+        TipoAlertaEstoque tipo,
+        Long itemId,
+        String nome,
+        String localizacao,
+        Integer quantidade,
+        Integer estoqueMinimo,
+        Instant ocorridoEm
+) {}
@@ -0,0 +1,6 @@
+package com.senac.ControlaStock.application.dto.alerta;
+
+public enum TipoAlertaEstoque {
+    ESTOQUE_BAIXO,       // O item ficou abaixo do estoque mínimo
+    ESTOQUE_NORMALIZADO  // O item voltou a atender o estoque mínimo
+}
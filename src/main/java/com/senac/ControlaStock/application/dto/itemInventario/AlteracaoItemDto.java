@@ -0,0 +1,10 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+import java.time.Instant;
+
+public record AlteracaoItemDto(
+        TipoAlteracaoItem tipo,
+        Long itemId,                    // Nulo em RESSINCRONIZAR
+        ItemInventarioResponseDto item, // Estado atual; nulo na remoção e em RESSINCRONIZAR
+        Instant ocorridoEm
+) {}
@@ -0,0 +1,8 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+import java.util.List;
+
+public record ErroImportacaoDto(
+        long linha,
+        List<String> mensagens
+) {}
@@ -0,0 +1,10 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+public record ItemInventarioBuscaDto(
+        Long id,
+        String nome,
+        String descricao,
+        Integer quantidade,
+        String localizacao,
+        Double relevancia  // De 0 a 1; os resultados vêm em ordem decrescente de relevância
+) {}
@@ -0,0 +1,10 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+import java.util.List;
+
+public record ItemInventarioBuscaResponseDto(
+        String termo,
+        List<ItemInventarioBuscaDto> itens,
+        String proximoCursor,  // Nulo quando não há mais páginas
+        boolean temMais
+) {}
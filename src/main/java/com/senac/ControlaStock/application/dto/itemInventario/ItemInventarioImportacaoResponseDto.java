@@ -0,0 +1,11 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+import java.util.List;
+
+public record ItemInventarioImportacaoResponseDto(
+        long linhasProcessadas,
+        long itensImportados,
+        long linhasComErro,
+        List<ErroImportacaoDto> erros,
+        boolean errosTruncados  // true quando há mais erros do que os listados
+) {}
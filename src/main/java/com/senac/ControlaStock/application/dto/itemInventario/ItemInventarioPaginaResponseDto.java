@@ -0,0 +1,9 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+import java.util.List;
+
+public record ItemInventarioPaginaResponseDto(
+        List<ItemInventarioResponseDto> itens,
+        String proximoCursor,  // Nulo quando não há mais páginas
+        boolean temMais
+) {}
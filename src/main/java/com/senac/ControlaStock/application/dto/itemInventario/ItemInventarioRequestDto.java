@@ -15,5 +15,13 @@ public record ItemInventarioRequestDto(
         Integer quantidade,
 
         // Localização é opcional - será "Estoque Principal" se vazio
-        String localizacao
+        String localizacao,
+
+        // Opcional - sem estoque mínimo o item não gera alertas
+        @Min(value = 0, message = "Estoque mínimo não pode ser negativo")
+        Integer estoqueMinimo,
+
+        // Opcional - só na atualização: versão do item lida pelo cliente. Se o item mudou desde
+        // então a atualização é recusada com 409; sem ela a atualização sobrescreve o item.
+        Long versao
 ) {}
\ No newline at end of file
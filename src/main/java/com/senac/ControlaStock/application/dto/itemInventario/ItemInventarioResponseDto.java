@@ -5,6 +5,8 @@ public record ItemInventarioResponseDto(
         String nome,
         String descricao,
         Integer quantidade,
-        String localizacao
+        String localizacao,
+        Integer estoqueMinimo,
+        Long versao
 ) {
 }
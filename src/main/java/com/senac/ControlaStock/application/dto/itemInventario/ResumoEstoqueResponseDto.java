@@ -0,0 +1,10 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+import java.util.List;
+
+public record ResumoEstoqueResponseDto(
+        long totalItens,
+        long quantidadeTotal,
+        long itensSemEstoque,
+        List<ResumoLocalizacaoDto> localizacoes
+) {}
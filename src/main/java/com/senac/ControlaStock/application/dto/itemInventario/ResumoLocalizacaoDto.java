@@ -0,0 +1,8 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+public record ResumoLocalizacaoDto(
+        String localizacao,
+        long totalItens,
+        long quantidadeTotal,
+        long itensSemEstoque
+) {}
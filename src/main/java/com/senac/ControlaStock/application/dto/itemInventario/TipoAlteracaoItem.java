@@ -0,0 +1,9 @@
+package com.senac.ControlaStock.application.dto.itemInventario;
+
+public enum TipoAlteracaoItem {
+    ITEM_CRIADO,
+    ITEM_ATUALIZADO,
+    QUANTIDADE_ALTERADA,
+    ITEM_REMOVIDO,
+    RESSINCRONIZAR  // O cliente deve recarregar a lista de itens
+}
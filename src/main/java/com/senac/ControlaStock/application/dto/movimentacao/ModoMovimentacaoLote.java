@@ -0,0 +1,8 @@
+package com.senac.ControlaStock.application.dto.movimentacao;
+
+public enum ModoMovimentacaoLote {
+    // Qualquer linha inválida cancela o lote inteiro
+    TUDO_OU_NADA,
+    // Aplica as linhas válidas e relata as inválidas
+    MELHOR_ESFORCO
+}
@@ -0,0 +1,10 @@
+package com.senac.ControlaStock.application.dto.movimentacao;
+
+import java.util.List;
+
+public record MovimentacaoEstoquePaginaResponseDto(
+        Long itemId,
+        List<MovimentacaoEstoqueResponseDto> movimentacoes,
+        String proximoCursor,  // Nulo quando não há mais páginas
+        boolean temMais
+) {}
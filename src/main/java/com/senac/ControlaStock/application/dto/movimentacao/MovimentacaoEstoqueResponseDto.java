@@ -0,0 +1,13 @@
+package com.senac.ControlaStock.application.dto.movimentacao;
+
+import com.senac.ControlaStock.domain.entities.TipoMovimentacao;
+
+import java.time.Instant;
+
+public record MovimentacaoEstoqueResponseDto(
+        Long id,
+        TipoMovimentacao tipo,
+        Integer delta,
+        Integer quantidadeResultante,
+        Instant ocorridoEm
+) {}
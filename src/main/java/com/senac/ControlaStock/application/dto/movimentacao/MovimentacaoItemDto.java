@@ -0,0 +1,12 @@
+package com.senac.ControlaStock.application.dto.movimentacao;
+
+import jakarta.validation.constraints.NotNull;
+
+public record MovimentacaoItemDto(
+        @NotNull(message = "O id do item é obrigatório")
+        Long itemId,
+
+        // Positivo adiciona ao estoque, negativo retira
+        @NotNull(message = "A quantidade movimentada é obrigatória")
+        Integer delta
+) {}
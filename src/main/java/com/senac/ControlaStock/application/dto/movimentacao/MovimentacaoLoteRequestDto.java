@@ -0,0 +1,16 @@
+package com.senac.ControlaStock.application.dto.movimentacao;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record MovimentacaoLoteRequestDto(
+        // Opcional - será TUDO_OU_NADA se vazio
+        ModoMovimentacaoLote modo,
+
+        @NotEmpty(message = "Informe ao menos uma movimentação")
+        @Size(max = 1000, message = "Um lote aceita no máximo 1000 movimentações")
+        List<@Valid MovimentacaoItemDto> movimentacoes
+) {}
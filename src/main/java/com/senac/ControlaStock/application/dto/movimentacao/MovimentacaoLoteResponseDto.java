@@ -0,0 +1,11 @@
+package com.senac.ControlaStock.application.dto.movimentacao;
+
+import java.util.List;
+
+public record MovimentacaoLoteResponseDto(
+        ModoMovimentacaoLote modo,
+        boolean aplicado,  // false quando um lote TUDO_OU_NADA foi cancelado
+        int linhasAplicadas,
+        int linhasComErro,
+        List<ResultadoMovimentacaoDto> resultados
+) {}
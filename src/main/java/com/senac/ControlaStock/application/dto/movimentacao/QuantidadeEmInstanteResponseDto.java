@@ -0,0 +1,10 @@
+package com.senac.ControlaStock.application.dto.movimentacao;
+
+import java.time.Instant;
+
+public record QuantidadeEmInstanteResponseDto(
+        Long itemId,
+        Instant instante,
+        Integer quantidade,
+        Long ultimaMovimentacaoId  // Nulo quando o item ainda não existia no instante
+) {}
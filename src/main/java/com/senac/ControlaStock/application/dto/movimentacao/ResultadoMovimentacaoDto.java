@@ -0,0 +1,10 @@
+package com.senac.ControlaStock.application.dto.movimentacao;
+
+public record ResultadoMovimentacaoDto(
+        int linha,
+        Long itemId,
+        Integer delta,
+        boolean sucesso,
+        Integer quantidadeResultante,
+        String erro
+) {}
@@ -0,0 +1,8 @@
+package com.senac.ControlaStock.application.ports;
+
+import com.senac.ControlaStock.domain.entities.Usuario;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface AlertaEstoqueServicePorts {
+    SseEmitter assinar(Usuario usuarioLogado);
+}
@@ -2,6 +2,11 @@ package com.senac.ControlaStock.application.ports;
 
 import com.senac.ControlaStock.application.dto.endereco.EnderecoResponseDto;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface CepServicePort {
     EnderecoResponseDto buscarEnderecoPorCep(String cep); // Agora retorna DTO
-}
\ No newline at end of file
+
+    // Versão assíncrona: não bloqueia a thread chamadora enquanto o serviço externo responde
+    CompletableFuture<EnderecoResponseDto> buscarEnderecoPorCepAsync(String cep);
+}
@@ -1,17 +1,37 @@
 package com.senac.ControlaStock.application.ports;
 
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioBuscaResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioImportacaoResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioPaginaResponseDto;
 import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioRequestDto;
 import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ResumoEstoqueResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoEstoquePaginaResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteRequestDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.QuantidadeEmInstanteResponseDto;
 import com.senac.ControlaStock.domain.entities.Usuario;
 
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 public interface ItemInventarioServicePorts {
     List<ItemInventarioResponseDto> listarTodos(Usuario usuarioLogado);
+    ItemInventarioPaginaResponseDto listarPagina(Usuario usuarioLogado, String cursor, Integer limite, String ordenarPor);
     ItemInventarioResponseDto buscarPorId(Long id, Usuario usuarioLogado);
+    ItemInventarioBuscaResponseDto buscarPorTexto(String termo, String cursor, Integer limite, Usuario usuarioLogado);
+    ItemInventarioPaginaResponseDto listarAbaixoDoMinimo(Usuario usuarioLogado, String cursor, Integer limite);
     ItemInventarioResponseDto criarItem(ItemInventarioRequestDto requestDto, Usuario usuarioLogado);
-    ItemInventarioResponseDto atualizarItem(Long id, ItemInventarioRequestDto requestDto, Usuario usuarioLogado);
-    void removerItem(Long id, Usuario usuarioLogado);
+    ItemInventarioResponseDto atualizarItem(Long id, ItemInventarioRequestDto requestDto, Usuario usuarioLogado, Long versaoEsperada);
+    void removerItem(Long id, Usuario usuarioLogado, Long versaoEsperada);
     ItemInventarioResponseDto adicionarQuantidade(Long id, Integer quantidade, Usuario usuarioLogado);
     ItemInventarioResponseDto removerQuantidade(Long id, Integer quantidade, Usuario usuarioLogado);
+    MovimentacaoLoteResponseDto movimentarEmLote(MovimentacaoLoteRequestDto requestDto, Usuario usuarioLogado);
+    ItemInventarioImportacaoResponseDto importarItens(InputStream conteudo, String formato, Usuario usuarioLogado);
+    MovimentacaoEstoquePaginaResponseDto listarMovimentacoes(Long itemId, String cursor, Integer limite, Usuario usuarioLogado);
+    QuantidadeEmInstanteResponseDto consultarQuantidadeEm(Long itemId, Instant instante, Usuario usuarioLogado);
+    ResumoEstoqueResponseDto resumirPorLocalizacao(Usuario usuarioLogado);
+    ResumoEstoqueResponseDto reconstruirResumo(Usuario usuarioLogado);
+    long versaoInventario(Usuario usuarioLogado);
 }
@@ -9,4 +9,7 @@ public interface TokenServicePorts {
 
     // Método para validar o token e retornar o login (email) do Subject como String
     String validarToken(String token);
+
+    // Método para revogar o token (logout): remove do banco e do cache de tokens validados
+    void revogarToken(String token);
 }
\ No newline at end of file
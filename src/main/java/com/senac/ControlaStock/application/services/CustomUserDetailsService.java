@@ -3,19 +3,31 @@ package com.senac.ControlaStock.application.services;
 import com.senac.ControlaStock.domain.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    @Autowired
+    private UsuarioCache usuarioCache;
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return usuarioRepository.findByEmail(email)
+        return usuarioCache.buscarPorEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com email: " + email));
     }
-}
\ No newline at end of file
+
+    // Chamado pelo Spring Security após um login válido cujo hash foi gerado com custo menor que o atual
+    @Override
+    public UserDetails updatePassword(UserDetails usuario, String novoHash) {
+        usuarioRepository.atualizarSenha(usuario.getUsername(), novoHash);
+        usuarioCache.invalidar(usuario.getUsername());
+        return loadUserByUsername(usuario.getUsername());
+    }
+}
@@ -1,67 +1,364 @@
 package com.senac.ControlaStock.application.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.senac.ControlaStock.application.ports.ItemInventarioServicePorts;
+import com.senac.ControlaStock.application.dto.itemInventario.ErroImportacaoDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioBuscaDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioBuscaResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioImportacaoResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioPaginaResponseDto;
 import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioRequestDto;
 import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ResumoEstoqueResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ResumoLocalizacaoDto;
 import com.senac.ControlaStock.application.ports.ItemInventarioServicePorts;
+import com.senac.ControlaStock.application.dto.movimentacao.ModoMovimentacaoLote;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoEstoquePaginaResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoEstoqueResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoItemDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteRequestDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.QuantidadeEmInstanteResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.ResultadoMovimentacaoDto;
 import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.entities.MovimentacaoEstoque;
+import com.senac.ControlaStock.domain.entities.TipoMovimentacao;
 import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent;
+import com.senac.ControlaStock.domain.events.EstoqueMinimoCruzadoEvent;
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent.AlteracaoEstoque;
 import com.senac.ControlaStock.domain.repository.ItemInventarioRepository;
+import com.senac.ControlaStock.domain.repository.MovimentacaoEstoqueRepository;
+import com.senac.ControlaStock.domain.repository.ResumoEstoqueRepository;
+import com.senac.ControlaStock.domain.repository.VersaoInventarioRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ItemInventarioService implements ItemInventarioServicePorts {
 
+    private static final int LIMITE_PADRAO = 50;
+    private static final int LIMITE_MAXIMO = 500;
+    private static final int LIMITE_PADRAO_BUSCA = 20;
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
     @Autowired
     private ItemInventarioRepository itemInventarioRepository;
 
+    @Autowired
+    private MovimentacaoEstoqueRepository movimentacaoEstoqueRepository;
+
+    @Autowired
+    private ResumoEstoqueRepository resumoEstoqueRepository;
+
+    @Autowired
+    private VersaoInventarioRepository versaoInventarioRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RepeticaoEmConflito repeticaoEmConflito;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${controlastock.importacao.tamanho-lote:1000}")
+    private int tamanhoLoteImportacao;
+
+    @Value("${controlastock.importacao.maximo-erros-relatados:1000}")
+    private int maximoErrosRelatados;
+
+    @Value("${controlastock.importacao.tamanho-maximo-linha:16384}")
+    private int tamanhoMaximoLinhaImportacao;
+
     @Override
+    @Transactional(readOnly = true)
     public List<ItemInventarioResponseDto> listarTodos(Usuario usuarioLogado) {
-        return itemInventarioRepository.findByUsuario(usuarioLogado)
-                .stream()
-                .map(this::toResponseDto)
-                .collect(Collectors.toList());
+        return itemInventarioRepository.findByUsuarioIdOrderById(usuarioLogado.getId(), ItemInventarioResponseDto.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemInventarioPaginaResponseDto listarPagina(Usuario usuarioLogado, String cursor, Integer limite, String ordenarPor) {
+        String ordenacao = (ordenarPor == null || ordenarPor.isBlank()) ? "id" : ordenarPor.trim();
+        if (!List.of("id", "nome", "localizacao").contains(ordenacao)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ordenação inválida. Use 'id', 'nome' ou 'localizacao'.");
+        }
+
+        int tamanhoPagina = limite == null ? LIMITE_PADRAO : limite;
+        if (tamanhoPagina < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O limite deve ser maior que zero.");
+        }
+        tamanhoPagina = Math.min(tamanhoPagina, LIMITE_MAXIMO);
+
+        // Busca um registro a mais só para saber se existe próxima página
+        Limit limiteConsulta = Limit.of(tamanhoPagina + 1);
+        Long usuarioId = usuarioLogado.getId();
+        String[] posicao = cursor == null || cursor.isBlank() ? null : decodificarCursor(cursor, ordenacao);
+
+        Class<ItemInventarioResponseDto> tipo = ItemInventarioResponseDto.class;
+
+        List<ItemInventarioResponseDto> itens = switch (ordenacao) {
+            case "nome" -> posicao == null
+                    ? itemInventarioRepository.buscarPrimeiraPaginaPorNome(usuarioId, limiteConsulta, tipo)
+                    : itemInventarioRepository.buscarPaginaPorNome(usuarioId, posicao[2], Long.valueOf(posicao[1]), limiteConsulta, tipo);
+            case "localizacao" -> posicao == null
+                    ? itemInventarioRepository.buscarPrimeiraPaginaPorLocalizacao(usuarioId, limiteConsulta, tipo)
+                    : itemInventarioRepository.buscarPaginaPorLocalizacao(usuarioId, posicao[2], Long.valueOf(posicao[1]), limiteConsulta, tipo);
+            default -> itemInventarioRepository.buscarPaginaPorId(
+                    usuarioId, posicao == null ? 0L : Long.valueOf(posicao[1]), limiteConsulta, tipo);
+        };
+
+        boolean temMais = itens.size() > tamanhoPagina;
+        if (temMais) {
+            itens = itens.subList(0, tamanhoPagina);
+        }
+
+        String proximoCursor = temMais ? codificarCursor(itens.get(itens.size() - 1), ordenacao) : null;
+        return new ItemInventarioPaginaResponseDto(itens, proximoCursor, temMais);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemInventarioResponseDto buscarPorId(Long id, Usuario usuarioLogado) {
-        ItemInventario item = itemInventarioRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item não encontrado."));
+        return itemInventarioRepository.findByIdAndUsuarioId(id, usuarioLogado.getId(), ItemInventarioResponseDto.class)
+                .orElseThrow(() -> itemInacessivel(id, "acessar"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemInventarioBuscaResponseDto buscarPorTexto(String termo, String cursor, Integer limite, Usuario usuarioLogado) {
+        if (termo == null || termo.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o termo da busca.");
+        }
+        int tamanhoPagina = limite == null ? LIMITE_PADRAO_BUSCA : Math.min(limite, LIMITE_MAXIMO_BUSCA);
+        if (tamanhoPagina < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O limite deve ser maior que zero.");
+        }
 
-        if (!item.getUsuario().getId().equals(usuarioLogado.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Você não tem permissão para acessar este item.");
+        // Distância -1 vem antes de qualquer resultado: primeira página
+        double distancia = -1;
+        Long aPartirDe = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] posicao = decodificarCursor(cursor, "busca");
+            try {
+                distancia = Double.parseDouble(posicao[2]);
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+            }
+            aPartirDe = Long.valueOf(posicao[1]);
         }
 
-        return toResponseDto(item);
+        List<ItemInventarioRepository.ResultadoBusca> resultados = itemInventarioRepository.buscarPorTexto(
+                usuarioLogado.getId(), termo.trim().toLowerCase(), distancia, aPartirDe, tamanhoPagina + 1);
+
+        boolean temMais = resultados.size() > tamanhoPagina;
+        if (temMais) {
+            resultados = resultados.subList(0, tamanhoPagina);
+        }
+
+        List<ItemInventarioBuscaDto> itens = resultados.stream()
+                .map(r -> new ItemInventarioBuscaDto(
+                        r.getId(), r.getNome(), r.getDescricao(), r.getQuantidade(), r.getLocalizacao(), r.getRelevancia()))
+                .collect(Collectors.toList());
+
+        String proximoCursor = null;
+        if (temMais) {
+            ItemInventarioRepository.ResultadoBusca ultimo = resultados.get(resultados.size() - 1);
+            proximoCursor = codificarCursor("busca", ultimo.getId(), ultimo.getDistancia().toString());
+        }
+        return new ItemInventarioBuscaResponseDto(termo.trim(), itens, proximoCursor, temMais);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemInventarioPaginaResponseDto listarAbaixoDoMinimo(Usuario usuarioLogado, String cursor, Integer limite) {
+        int tamanhoPagina = limite == null ? LIMITE_PADRAO : limite;
+        if (tamanhoPagina < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O limite deve ser maior que zero.");
+        }
+        tamanhoPagina = Math.min(tamanhoPagina, LIMITE_MAXIMO);
+
+        Long aPartirDe = cursor == null || cursor.isBlank() ? 0L : Long.valueOf(decodificarCursor(cursor, "abaixo-do-minimo")[1]);
+        List<ItemInventarioResponseDto> itens = itemInventarioRepository.buscarPaginaAbaixoDoMinimo(
+                usuarioLogado.getId(), aPartirDe, tamanhoPagina + 1, ItemInventarioResponseDto.class);
+
+        boolean temMais = itens.size() > tamanhoPagina;
+        if (temMais) {
+            itens = itens.subList(0, tamanhoPagina);
+        }
+
+        String proximoCursor = temMais ? codificarCursor("abaixo-do-minimo", itens.get(itens.size() - 1).id(), "") : null;
+        return new ItemInventarioPaginaResponseDto(itens, proximoCursor, temMais);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MovimentacaoEstoquePaginaResponseDto listarMovimentacoes(Long itemId, String cursor, Integer limite, Usuario usuarioLogado) {
+        int tamanhoPagina = limite == null ? LIMITE_PADRAO : limite;
+        if (tamanhoPagina < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O limite deve ser maior que zero.");
+        }
+        tamanhoPagina = Math.min(tamanhoPagina, LIMITE_MAXIMO);
+
+        Limit limiteConsulta = Limit.of(tamanhoPagina + 1);
+        List<MovimentacaoEstoque> movimentacoes;
+        if (cursor == null || cursor.isBlank()) {
+            movimentacoes = movimentacaoEstoqueRepository.buscarPrimeiraPaginaHistorico(itemId, usuarioLogado.getId(), limiteConsulta);
+            if (movimentacoes.isEmpty()) {
+                verificarAcessoHistorico(itemId, usuarioLogado);
+            }
+        } else {
+            String[] posicao = decodificarCursor(cursor, "historico");
+            Instant ocorridoEm;
+            try {
+                ocorridoEm = Instant.parse(posicao[2]);
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+            }
+            movimentacoes = movimentacaoEstoqueRepository.buscarPaginaHistorico(
+                    itemId, usuarioLogado.getId(), ocorridoEm, Long.valueOf(posicao[1]), limiteConsulta);
+        }
+
+        boolean temMais = movimentacoes.size() > tamanhoPagina;
+        if (temMais) {
+            movimentacoes = movimentacoes.subList(0, tamanhoPagina);
+        }
+
+        String proximoCursor = null;
+        if (temMais) {
+            MovimentacaoEstoque ultima = movimentacoes.get(movimentacoes.size() - 1);
+            proximoCursor = codificarCursor("historico", ultima.getId(), ultima.getOcorridoEm().toString());
+        }
+        List<MovimentacaoEstoqueResponseDto> pagina = movimentacoes.stream()
+                .map(m -> new MovimentacaoEstoqueResponseDto(
+                        m.getId(), m.getTipo(), m.getDelta(), m.getQuantidadeResultante(), m.getOcorridoEm()))
+                .collect(Collectors.toList());
+
+        return new MovimentacaoEstoquePaginaResponseDto(itemId, pagina, proximoCursor, temMais);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public QuantidadeEmInstanteResponseDto consultarQuantidadeEm(Long itemId, Instant instante, Usuario usuarioLogado) {
+        Instant momento = instante == null ? Instant.now() : instante;
+
+        List<MovimentacaoEstoque> ultima = movimentacaoEstoqueRepository.buscarUltimaAte(
+                itemId, usuarioLogado.getId(), momento, Limit.of(1));
+        if (ultima.isEmpty()) {
+            // Sem movimentação até o instante: o item ainda não existia (ou não é do usuário)
+            verificarAcessoHistorico(itemId, usuarioLogado);
+            return new QuantidadeEmInstanteResponseDto(itemId, momento, 0, null);
+        }
+        MovimentacaoEstoque movimentacao = ultima.get(0);
+        return new QuantidadeEmInstanteResponseDto(itemId, momento, movimentacao.getQuantidadeResultante(), movimentacao.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResumoEstoqueResponseDto resumirPorLocalizacao(Usuario usuarioLogado) {
+        List<ResumoLocalizacaoDto> localizacoes = resumoEstoqueRepository
+                .findByUsuarioIdAndTotalItensGreaterThanOrderByLocalizacao(usuarioLogado.getId(), 0L)
+                .stream()
+                .map(r -> new ResumoLocalizacaoDto(r.getLocalizacao(), r.getTotalItens(), r.getQuantidadeTotal(), r.getItensSemEstoque()))
+                .collect(Collectors.toList());
+
+        return new ResumoEstoqueResponseDto(
+                localizacoes.stream().mapToLong(ResumoLocalizacaoDto::totalItens).sum(),
+                localizacoes.stream().mapToLong(ResumoLocalizacaoDto::quantidadeTotal).sum(),
+                localizacoes.stream().mapToLong(ResumoLocalizacaoDto::itensSemEstoque).sum(),
+                localizacoes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long versaoInventario(Usuario usuarioLogado) {
+        return versaoInventarioRepository.buscarVersao(usuarioLogado.getId()).orElse(0L);
+    }
+
+    /**
+     * Recalcula o resumo do usuário a partir dos itens (reparo de consistência). Começa bloqueando a
+     * versão do inventário, que toda alteração de itens mantém bloqueada até o commit: as alterações
+     * em andamento terminam antes do recálculo, e as seguintes esperam por ele e somam seus deltas
+     * ao resultado, inclusive em localizações que ainda não tinham linha no resumo.
+     */
+    @Override
+    @Transactional
+    public ResumoEstoqueResponseDto reconstruirResumo(Usuario usuarioLogado) {
+        versaoInventarioRepository.bloquear(usuarioLogado.getId());
+        resumoEstoqueRepository.apagarDoUsuario(usuarioLogado.getId());
+        resumoEstoqueRepository.recalcularDoUsuario(usuarioLogado.getId());
+        return resumirPorLocalizacao(usuarioLogado);
     }
 
     @Override
+    @Transactional
     public ItemInventarioResponseDto criarItem(ItemInventarioRequestDto requestDto, Usuario usuarioLogado) {
         ItemInventario novoItem = toEntity(requestDto);
         novoItem.setUsuario(usuarioLogado);
 
         ItemInventario itemSalvo = itemInventarioRepository.save(novoItem);
+        publicarAlteracao(usuarioLogado, alteracao(itemSalvo, TipoMovimentacao.CRIACAO, itemSalvo.getQuantidade()));
+        verificarEstoqueMinimo(usuarioLogado, itemSalvo, false);
         return toResponseDto(itemSalvo);
     }
 
+    // Read-modify-write com controle otimista: um conflito com outra alteração do item refaz a
+    // transação inteira (RepeticaoEmConflito). A versão do item enviada pelo cliente é conferida na
+    // leitura; diferente da atual, o cliente é que está desatualizado e não há o que repetir.
     @Override
-    public ItemInventarioResponseDto atualizarItem(Long id, ItemInventarioRequestDto requestDto, Usuario usuarioLogado) {
-        ItemInventario itemExistente = itemInventarioRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item não encontrado."));
+    public ItemInventarioResponseDto atualizarItem(Long id, ItemInventarioRequestDto requestDto, Usuario usuarioLogado, Long versaoEsperada) {
+        return repeticaoEmConflito.executar("atualizarItem", () -> transactionTemplate.execute(
+                status -> aplicarAtualizacao(id, requestDto, usuarioLogado, versaoEsperada)));
+    }
 
-        if (!itemExistente.getUsuario().getId().equals(usuarioLogado.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Você não tem permissão para atualizar este item.");
+    private ItemInventarioResponseDto aplicarAtualizacao(Long id, ItemInventarioRequestDto requestDto, Usuario usuarioLogado, Long versaoEsperada) {
+        ItemInventario itemExistente = itemInventarioRepository.findByIdAndUsuarioId(id, usuarioLogado.getId(), ItemInventario.class)
+                .orElseThrow(() -> itemInacessivel(id, "atualizar"));
+        if (requestDto.versao() != null && !requestDto.versao().equals(itemExistente.getVersao())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "O item foi alterado desde a última consulta (versão atual "
+                    + itemExistente.getVersao() + "). Consulte novamente antes de alterar.");
         }
 
+        int quantidadeAnterior = itemExistente.getQuantidade();
+        String localizacaoAnterior = itemExistente.getLocalizacao();
+        boolean estavaAbaixoDoMinimo = abaixoDoMinimo(itemExistente);
         itemExistente.setNome(requestDto.nome());
         itemExistente.setDescricao(requestDto.descricao());
         itemExistente.setQuantidade(requestDto.quantidade());
+        itemExistente.setEstoqueMinimo(requestDto.estoqueMinimo());
 
         String localizacao = requestDto.localizacao();
         if (localizacao == null || localizacao.trim().isEmpty()) {
@@ -70,51 +367,350 @@ public class ItemInventarioService implements ItemInventarioServicePorts {
         itemExistente.setLocalizacao(localizacao);
 
         ItemInventario itemAtualizado = itemInventarioRepository.save(itemExistente);
+        publicarAlteracao(usuarioLogado, versaoEsperada, List.of(new AlteracaoEstoque(itemAtualizado.getId(), TipoMovimentacao.AJUSTE,
+                itemAtualizado.getQuantidade() - quantidadeAnterior, itemAtualizado.getQuantidade(),
+                localizacaoAnterior, itemAtualizado.getLocalizacao(), itemAtualizado)));
+        verificarEstoqueMinimo(usuarioLogado, itemAtualizado, estavaAbaixoDoMinimo);
+        // A versão nova, que vai na resposta, é atribuída no UPDATE
+        itemInventarioRepository.flush();
         return toResponseDto(itemAtualizado);
     }
 
     @Override
-    public void removerItem(Long id, Usuario usuarioLogado) {
-        ItemInventario item = itemInventarioRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item não encontrado."));
+    @Transactional
+    public void removerItem(Long id, Usuario usuarioLogado, Long versaoEsperada) {
+        ItemInventario item = itemInventarioRepository.deleteByIdAndUsuarioId(id, usuarioLogado.getId())
+                .orElseThrow(() -> itemInacessivel(id, "remover"));
+        publicarAlteracao(usuarioLogado, versaoEsperada,
+                List.of(new AlteracaoEstoque(item.getId(), TipoMovimentacao.REMOCAO, -item.getQuantidade(), 0,
+                        item.getLocalizacao(), null, item)));
+    }
 
-        if (!item.getUsuario().getId().equals(usuarioLogado.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Você não tem permissão para remover este item.");
-        }
+    // O UPDATE atômico e o registro no histórico ficam na mesma transação: o lock da linha
+    // serializa as movimentações do item e o saldo resultante do RETURNING é o da ordem de commit.
+    @Override
+    @Transactional
+    public ItemInventarioResponseDto adicionarQuantidade(Long id, Integer quantidade, Usuario usuarioLogado) {
+        validarQuantidadeMovimentada(quantidade);
 
-        itemInventarioRepository.deleteById(id);
+        ItemInventario item = itemInventarioRepository.adicionarQuantidade(id, usuarioLogado.getId(), quantidade)
+                .orElseThrow(() -> explicarFalhaMovimentacao(id, usuarioLogado, estoqueMaximoExcedido()));
+        publicarAlteracao(usuarioLogado, alteracao(item, TipoMovimentacao.ENTRADA, quantidade));
+        verificarEstoqueMinimo(usuarioLogado, item, abaixoDoMinimo(item.getQuantidade() - quantidade, item.getEstoqueMinimo()));
+        return toResponseDto(item);
     }
 
     @Override
-    public ItemInventarioResponseDto adicionarQuantidade(Long id, Integer quantidade, Usuario usuarioLogado) {
-        ItemInventario item = itemInventarioRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item não encontrado."));
+    @Transactional
+    public ItemInventarioResponseDto removerQuantidade(Long id, Integer quantidade, Usuario usuarioLogado) {
+        validarQuantidadeMovimentada(quantidade);
 
-        if (!item.getUsuario().getId().equals(usuarioLogado.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Você não tem permissão para modificar este item.");
+        ItemInventario item = itemInventarioRepository.removerQuantidade(id, usuarioLogado.getId(), quantidade)
+                .orElseThrow(() -> explicarFalhaMovimentacao(id, usuarioLogado,
+                        "Quantidade a ser removida é maior que o estoque atual."));
+        publicarAlteracao(usuarioLogado, alteracao(item, TipoMovimentacao.SAIDA, -quantidade));
+        verificarEstoqueMinimo(usuarioLogado, item, abaixoDoMinimo(item.getQuantidade() + quantidade, item.getEstoqueMinimo()));
+        return toResponseDto(item);
+    }
+
+    @Override
+    @Transactional
+    public MovimentacaoLoteResponseDto movimentarEmLote(MovimentacaoLoteRequestDto requestDto, Usuario usuarioLogado) {
+        ModoMovimentacaoLote modo = requestDto.modo() == null ? ModoMovimentacaoLote.TUDO_OU_NADA : requestDto.modo();
+        List<MovimentacaoItemDto> movimentacoes = requestDto.movimentacoes();
+
+        TreeSet<Long> ids = movimentacoes.stream()
+                .map(MovimentacaoItemDto::itemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, ItemInventario> itens = itemInventarioRepository.buscarParaMovimentacao(ids, usuarioLogado.getId())
+                .stream()
+                .collect(Collectors.toMap(ItemInventario::getId, Function.identity()));
+
+        // Aplica as linhas em ordem sobre um saldo em memória; as entidades só são alteradas no fim
+        Map<Long, Integer> saldos = new HashMap<>();
+        itens.values().forEach(item -> saldos.put(item.getId(), item.getQuantidade()));
+
+        List<ResultadoMovimentacaoDto> resultados = new ArrayList<>(movimentacoes.size());
+        List<AlteracaoEstoque> alteracoes = new ArrayList<>(movimentacoes.size());
+        int linhasComErro = 0;
+        for (int i = 0; i < movimentacoes.size(); i++) {
+            MovimentacaoItemDto movimentacao = movimentacoes.get(i);
+            String erro = null;
+            Integer saldo = saldos.get(movimentacao.itemId());
+
+            if (saldo == null) {
+                erro = "Item não encontrado.";
+            } else if (movimentacao.delta() == null || movimentacao.delta() == 0) {
+                erro = "Quantidade deve ser diferente de zero.";
+            } else if ((long) saldo + movimentacao.delta() < 0) {
+                erro = "Quantidade a ser removida é maior que o estoque atual.";
+            } else if ((long) saldo + movimentacao.delta() > Integer.MAX_VALUE) {
+                erro = estoqueMaximoExcedido();
+            } else {
+                saldo = saldo + movimentacao.delta();
+                saldos.put(movimentacao.itemId(), saldo);
+                ItemInventario item = itens.get(movimentacao.itemId());
+                alteracoes.add(new AlteracaoEstoque(movimentacao.itemId(),
+                        movimentacao.delta() > 0 ? TipoMovimentacao.ENTRADA : TipoMovimentacao.SAIDA,
+                        movimentacao.delta(), saldo, item.getLocalizacao(), item.getLocalizacao(), item));
+            }
+
+            if (erro != null) {
+                linhasComErro++;
+            }
+            resultados.add(new ResultadoMovimentacaoDto(
+                    i + 1, movimentacao.itemId(), movimentacao.delta(), erro == null, erro == null ? saldo : null, erro));
         }
 
-        item.setQuantidade(item.getQuantidade() + quantidade);
-        ItemInventario itemAtualizado = itemInventarioRepository.save(item);
-        return toResponseDto(itemAtualizado);
+        if (modo == ModoMovimentacaoLote.TUDO_OU_NADA && linhasComErro > 0) {
+            List<ResultadoMovimentacaoDto> cancelados = resultados.stream()
+                    .map(r -> r.sucesso()
+                            ? new ResultadoMovimentacaoDto(r.linha(), r.itemId(), r.delta(), false, null,
+                                    "Não aplicada: outra movimentação do lote falhou.")
+                            : r)
+                    .collect(Collectors.toList());
+            return new MovimentacaoLoteResponseDto(modo, false, 0, linhasComErro, cancelados);
+        }
+
+        // Os UPDATEs saem no commit, agrupados em lote JDBC pelo Hibernate (hibernate.jdbc.batch_size)
+        if (!alteracoes.isEmpty()) {
+            publicarAlteracao(usuarioLogado, alteracoes);
+        }
+        // O alerta compara o saldo antes e depois do lote inteiro, não linha a linha
+        saldos.forEach((id, saldo) -> {
+            ItemInventario item = itens.get(id);
+            boolean estavaAbaixoDoMinimo = abaixoDoMinimo(item);
+            item.setQuantidade(saldo);
+            verificarEstoqueMinimo(usuarioLogado, item, estavaAbaixoDoMinimo);
+        });
+
+        return new MovimentacaoLoteResponseDto(
+                modo, true, movimentacoes.size() - linhasComErro, linhasComErro, resultados);
     }
 
     @Override
-    public ItemInventarioResponseDto removerQuantidade(Long id, Integer quantidade, Usuario usuarioLogado) {
-        ItemInventario item = itemInventarioRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item não encontrado."));
+    public ItemInventarioImportacaoResponseDto importarItens(InputStream conteudo, String formato, Usuario usuarioLogado) {
+        RelatorioImportacao relatorio = new RelatorioImportacao(maximoErrosRelatados);
+        List<ItemInventario> lote = new ArrayList<>(tamanhoLoteImportacao);
+        List<Long> linhasDoLote = new ArrayList<>(tamanhoLoteImportacao);
+
+        try {
+            LeitorImportacaoItens leitor = LeitorImportacaoItens.para(formato, conteudo, objectMapper, tamanhoMaximoLinhaImportacao);
+            LeitorImportacaoItens.LinhaImportacao linha;
+
+            while ((linha = leitor.proxima()) != null) {
+                relatorio.linhasProcessadas++;
+
+                List<String> mensagens = validarLinhaImportacao(linha);
+                if (!mensagens.isEmpty()) {
+                    relatorio.registrarErro(linha.numero(), mensagens);
+                    continue;
+                }
+
+                ItemInventario item = toEntity(linha.item());
+                item.setUsuario(usuarioLogado);
+                lote.add(item);
+                linhasDoLote.add(linha.numero());
+
+                if (lote.size() >= tamanhoLoteImportacao) {
+                    gravarLoteImportacao(lote, linhasDoLote, relatorio);
+                }
+            }
+            if (!lote.isEmpty()) {
+                gravarLoteImportacao(lote, linhasDoLote, relatorio);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Erro ao ler o conteúdo da importação: " + e.getMessage());
+        }
 
-        if (!item.getUsuario().getId().equals(usuarioLogado.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Você não tem permissão para modificar este item.");
+        return relatorio.toResponseDto();
+    }
+
+    private List<String> validarLinhaImportacao(LeitorImportacaoItens.LinhaImportacao linha) {
+        if (linha.erro() != null) {
+            return List.of(linha.erro());
         }
+        return validator.validate(linha.item())
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+    }
 
-        if (item.getQuantidade() < quantidade) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantidade a ser removida é maior que o estoque atual.");
+    /**
+     * Cada lote é gravado na própria transação, junto com o seu registro no histórico; se o banco
+     * recusar o lote, todas as suas linhas entram no relatório de erros e a importação continua.
+     */
+    private void gravarLoteImportacao(List<ItemInventario> lote, List<Long> linhasDoLote, RelatorioImportacao relatorio) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemInventarioRepository.salvarEmLote(lote);
+                Usuario usuario = lote.get(0).getUsuario();
+                publicarAlteracao(usuario, lote.stream()
+                        .map(item -> alteracao(item, TipoMovimentacao.CRIACAO, item.getQuantidade()))
+                        .collect(Collectors.toList()));
+            });
+            relatorio.itensImportados += lote.size();
+        } catch (DataAccessException | TransactionException e) {
+            List<String> mensagens = List.of("Falha ao gravar o lote: " + e.getMostSpecificCause().getMessage());
+            for (Long numeroLinha : linhasDoLote) {
+                relatorio.registrarErro(numeroLinha, mensagens);
+            }
         }
+        lote.clear();
+        linhasDoLote.clear();
+    }
 
-        item.setQuantidade(item.getQuantidade() - quantidade);
-        ItemInventario itemAtualizado = itemInventarioRepository.save(item);
-        return toResponseDto(itemAtualizado);
+    private static final class RelatorioImportacao {
+
+        private final int maximoErros;
+        private final List<ErroImportacaoDto> erros = new ArrayList<>();
+        private long linhasProcessadas;
+        private long itensImportados;
+        private long linhasComErro;
+
+        private RelatorioImportacao(int maximoErros) {
+            this.maximoErros = maximoErros;
+        }
+
+        // Só os primeiros erros são guardados, para o relatório não crescer com o tamanho do arquivo
+        private void registrarErro(long numeroLinha, List<String> mensagens) {
+            linhasComErro++;
+            if (erros.size() < maximoErros) {
+                erros.add(new ErroImportacaoDto(numeroLinha, mensagens));
+            }
+        }
+
+        private ItemInventarioImportacaoResponseDto toResponseDto() {
+            return new ItemInventarioImportacaoResponseDto(
+                    linhasProcessadas, itensImportados, linhasComErro, erros, linhasComErro > erros.size());
+        }
+    }
+
+    // Alteração que não muda a localização do item (criação, entrada e saída)
+    private AlteracaoEstoque alteracao(ItemInventario item, TipoMovimentacao tipo, int delta) {
+        String localizacaoAnterior = tipo == TipoMovimentacao.CRIACAO ? null : item.getLocalizacao();
+        return new AlteracaoEstoque(item.getId(), tipo, delta, item.getQuantidade(), localizacaoAnterior, item.getLocalizacao(), item);
+    }
+
+    private void publicarAlteracao(Usuario usuario, AlteracaoEstoque alteracao) {
+        publicarAlteracao(usuario, List.of(alteracao));
+    }
+
+    private void publicarAlteracao(Usuario usuario, List<AlteracaoEstoque> alteracoes) {
+        publicarAlteracao(usuario, null, alteracoes);
+    }
+
+    /**
+     * Toda alteração de itens passa por aqui e incrementa a versão do inventário do usuário. Com
+     * If-Match a versão anterior ao incremento precisa ser a esperada: como a linha da versão fica
+     * bloqueada até o commit, a comparação e o incremento são atômicos, e o 412 desfaz a alteração.
+     */
+    private void publicarAlteracao(Usuario usuario, Long versaoEsperada, List<AlteracaoEstoque> alteracoes) {
+        long versao = versaoInventarioRepository.incrementar(usuario.getId());
+        if (versaoEsperada != null && versao - 1 != versaoEsperada) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "O inventário foi alterado desde a última consulta. Consulte novamente antes de alterar.");
+        }
+        eventPublisher.publishEvent(new EstoqueAlteradoEvent(usuario.getId(), versao, Instant.now(), alteracoes));
+    }
+
+    private static boolean abaixoDoMinimo(ItemInventario item) {
+        return abaixoDoMinimo(item.getQuantidade(), item.getEstoqueMinimo());
+    }
+
+    private static boolean abaixoDoMinimo(int quantidade, Integer estoqueMinimo) {
+        return estoqueMinimo != null && quantidade < estoqueMinimo;
+    }
+
+    // Só a transição gera alerta: um item que já estava abaixo do mínimo não gera outro a cada saída
+    private void verificarEstoqueMinimo(Usuario usuario, ItemInventario item, boolean estavaAbaixoDoMinimo) {
+        boolean estaAbaixoDoMinimo = abaixoDoMinimo(item);
+        if (estaAbaixoDoMinimo != estavaAbaixoDoMinimo) {
+            eventPublisher.publishEvent(new EstoqueMinimoCruzadoEvent(usuario.getId(), item.getId(), item.getNome(),
+                    item.getLocalizacao(), item.getQuantidade(), item.getEstoqueMinimo(), estaAbaixoDoMinimo, Instant.now()));
+        }
+    }
+
+    /**
+     * Chamado quando a consulta ao histórico não trouxe nada: o item pode não existir, ser de outro
+     * usuário, ou simplesmente não ter movimentações. O histórico de itens já excluídos continua
+     * acessível ao dono, porque as movimentações guardam o usuario_id.
+     */
+    private void verificarAcessoHistorico(Long itemId, Usuario usuarioLogado) {
+        if (movimentacaoEstoqueRepository.existsByItemIdAndUsuarioId(itemId, usuarioLogado.getId())
+                || itemInventarioRepository.existsByIdAndUsuarioId(itemId, usuarioLogado.getId())) {
+            return;
+        }
+        throw itemInacessivel(itemId, "acessar");
+    }
+
+    /**
+     * Chamado quando a consulta restrita ao dono não encontrou o item; só então verifica se ele
+     * existe para outro usuário, e devolve 403 nesse caso ou 404.
+     */
+    private ResponseStatusException itemInacessivel(Long id, String acao) {
+        if (itemInventarioRepository.existsById(id)) {
+            return new ResponseStatusException(HttpStatus.FORBIDDEN, "Você não tem permissão para " + acao + " este item.");
+        }
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Item não encontrado.");
+    }
+
+    private void validarQuantidadeMovimentada(Integer quantidade) {
+        if (quantidade == null || quantidade <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantidade deve ser maior que zero.");
+        }
+    }
+
+    /**
+     * Só é chamado quando o UPDATE condicional não afetou nenhuma linha; consulta o item
+     * para devolver o mesmo erro que a versão anterior (404, 403, ou 400 com o motivo: estoque
+     * insuficiente na retirada, saldo acima do máximo na entrada).
+     */
+    private ResponseStatusException explicarFalhaMovimentacao(Long id, Usuario usuarioLogado, String motivo) {
+        if (!itemInventarioRepository.existsByIdAndUsuarioId(id, usuarioLogado.getId())) {
+            return itemInacessivel(id, "modificar");
+        }
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, motivo);
+    }
+
+    // A coluna quantidade é integer
+    private static String estoqueMaximoExcedido() {
+        return "Quantidade resultante excede o máximo permitido (" + Integer.MAX_VALUE + ").";
+    }
+
+    /**
+     * O cursor é opaco para o cliente: "ordenação|id|valor da coluna ordenada" em Base64 URL-safe.
+     */
+    private String codificarCursor(ItemInventarioResponseDto ultimo, String ordenacao) {
+        String valor = switch (ordenacao) {
+            case "nome" -> ultimo.nome();
+            case "localizacao" -> ultimo.localizacao();
+            default -> "";
+        };
+        return codificarCursor(ordenacao, ultimo.id(), valor);
+    }
+
+    private String codificarCursor(String ordenacao, Long id, String valor) {
+        String conteudo = ordenacao + "|" + id + "|" + valor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodificarCursor(String cursor, String ordenacao) {
+        try {
+            String conteudo = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = conteudo.split("\\|", 3);
+            if (partes.length != 3 || !partes[0].equals(ordenacao)) {
+                throw new IllegalArgumentException("Cursor não corresponde à ordenação solicitada");
+            }
+            Long.parseLong(partes[1]);
+            return partes;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.");
+        }
     }
 
     private ItemInventario toEntity(ItemInventarioRequestDto dto) {
@@ -128,6 +724,7 @@ public class ItemInventarioService implements ItemInventarioServicePorts {
             localizacao = "Estoque Principal";
         }
         entity.setLocalizacao(localizacao);
+        entity.setEstoqueMinimo(dto.estoqueMinimo());
 
         return entity;
     }
@@ -138,7 +735,9 @@ public class ItemInventarioService implements ItemInventarioServicePorts {
                 entity.getNome(),
                 entity.getDescricao(),
                 entity.getQuantidade(),
-                entity.getLocalizacao()
+                entity.getLocalizacao(),
+                entity.getEstoqueMinimo(),
+                entity.getVersao()
         );
     }
 }
\ No newline at end of file
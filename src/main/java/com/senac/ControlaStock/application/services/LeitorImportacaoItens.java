@@ -0,0 +1,292 @@
+package com.senac.ControlaStock.application.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioRequestDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê o corpo de uma importação linha a linha (CSV com cabeçalho ou NDJSON), sem carregar o arquivo
+ * inteiro em memória. Erros de formato viram erros da própria linha em vez de abortar a leitura.
+ * Uma linha (ou registro CSV) maior que o limite vira erro e a leitura continua na linha física
+ * seguinte, então a memória fica limitada mesmo com aspas sem fechamento. Os números de linha são
+ * os do arquivo: um registro com quebras de linha entre aspas ocupa várias.
+ */
+abstract class LeitorImportacaoItens {
+
+    record LinhaImportacao(long numero, ItemInventarioRequestDto item, String erro) {}
+
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private int posicao;
+    private int limite;
+    private boolean inicio = true;
+    protected final int tamanhoMaximoLinha;
+    // Linha física do próximo caractere
+    protected long linha = 1;
+
+    private LeitorImportacaoItens(InputStream conteudo, int tamanhoMaximoLinha) {
+        this.reader = new InputStreamReader(conteudo, StandardCharsets.UTF_8);
+        this.tamanhoMaximoLinha = tamanhoMaximoLinha;
+    }
+
+    static LeitorImportacaoItens para(String formato, InputStream conteudo, ObjectMapper objectMapper, int tamanhoMaximoLinha) {
+        return switch (formato) {
+            case "csv" -> new Csv(conteudo, tamanhoMaximoLinha);
+            case "ndjson" -> new Ndjson(conteudo, objectMapper, tamanhoMaximoLinha);
+            default -> throw new IllegalArgumentException("Formato de importação não suportado: " + formato);
+        };
+    }
+
+    /**
+     * Retorna a próxima linha de dados, ou null no fim do conteúdo.
+     */
+    abstract LinhaImportacao proxima() throws IOException;
+
+    protected int ler() throws IOException {
+        if (posicao == limite && !encher()) {
+            return -1;
+        }
+        char c = buffer[posicao++];
+        if (c == '\n') {
+            linha++;
+        }
+        return c;
+    }
+
+    protected int espiar() throws IOException {
+        if (posicao == limite && !encher()) {
+            return -1;
+        }
+        return buffer[posicao];
+    }
+
+    // Descarta o resto da linha física atual
+    protected void pularResto() throws IOException {
+        int c;
+        do {
+            c = ler();
+        } while (c != -1 && c != '\n');
+    }
+
+    protected String linhaLonga() {
+        return "Linha excede o tamanho máximo de " + tamanhoMaximoLinha + " caracteres";
+    }
+
+    private boolean encher() throws IOException {
+        int lidos;
+        do {
+            lidos = reader.read(buffer);
+        } while (lidos == 0);
+        if (lidos < 0) {
+            return false;
+        }
+        posicao = 0;
+        limite = lidos;
+        // Arquivos exportados por planilhas (Excel) começam com o BOM do UTF-8, que o
+        // InputStreamReader não remove
+        if (inicio) {
+            inicio = false;
+            if (buffer[0] == '\uFEFF' && ++posicao == limite) {
+                return encher();
+            }
+        }
+        return true;
+    }
+
+    private static final class Ndjson extends LeitorImportacaoItens {
+
+        private final ObjectReader objectReader;
+
+        private Ndjson(InputStream conteudo, ObjectMapper objectMapper, int tamanhoMaximoLinha) {
+            super(conteudo, tamanhoMaximoLinha);
+            this.objectReader = objectMapper.readerFor(ItemInventarioRequestDto.class);
+        }
+
+        @Override
+        LinhaImportacao proxima() throws IOException {
+            StringBuilder texto = new StringBuilder();
+            while (true) {
+                long numero = linha;
+                texto.setLength(0);
+                boolean leuAlgo = false;
+                int c;
+                while ((c = ler()) != -1 && c != '\n') {
+                    leuAlgo = true;
+                    if (texto.length() == tamanhoMaximoLinha) {
+                        pularResto();
+                        return new LinhaImportacao(numero, null, linhaLonga());
+                    }
+                    texto.append((char) c);
+                }
+                if (c == -1 && !leuAlgo) {
+                    return null;
+                }
+                String json = texto.toString();
+                if (json.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    return new LinhaImportacao(numero, objectReader.readValue(json), null);
+                } catch (JsonProcessingException e) {
+                    return new LinhaImportacao(numero, null, "JSON inválido: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Csv extends LeitorImportacaoItens {
+
+        // Campos de um registro, ou o erro que impediu a leitura; linha é onde o registro começa
+        private record Registro(long linha, List<String> campos, String erro) {}
+
+        private Map<String, Integer> colunas;
+
+        private Csv(InputStream conteudo, int tamanhoMaximoLinha) {
+            super(conteudo, tamanhoMaximoLinha);
+        }
+
+        @Override
+        LinhaImportacao proxima() throws IOException {
+            if (colunas == null) {
+                lerCabecalho();
+            }
+
+            Registro registro;
+            do {
+                registro = lerRegistro();
+                if (registro == null) {
+                    return null;
+                }
+            } while (registro.campos() != null && registro.campos().size() == 1 && registro.campos().get(0).isBlank());
+
+            if (registro.erro() != null) {
+                return new LinhaImportacao(registro.linha(), null, registro.erro());
+            }
+            List<String> campos = registro.campos();
+            Integer quantidade;
+            Integer estoqueMinimo;
+            try {
+                quantidade = inteiro(campos, "quantidade");
+            } catch (NumberFormatException e) {
+                return new LinhaImportacao(registro.linha(), null, "Quantidade deve ser um número inteiro");
+            }
+            try {
+                estoqueMinimo = inteiro(campos, "estoque_minimo");
+            } catch (NumberFormatException e) {
+                return new LinhaImportacao(registro.linha(), null, "Estoque mínimo deve ser um número inteiro");
+            }
+
+            ItemInventarioRequestDto item = new ItemInventarioRequestDto(
+                    campo(campos, "nome"),
+                    campo(campos, "descricao"),
+                    quantidade,
+                    campo(campos, "localizacao"),
+                    estoqueMinimo,
+                    null
+            );
+            return new LinhaImportacao(registro.linha(), item, null);
+        }
+
+        private void lerCabecalho() throws IOException {
+            Registro cabecalho = lerRegistro();
+            if (cabecalho == null) {
+                throw new IllegalArgumentException("Arquivo CSV vazio");
+            }
+            if (cabecalho.erro() != null) {
+                throw new IllegalArgumentException("Cabeçalho do CSV inválido: " + cabecalho.erro());
+            }
+
+            colunas = new HashMap<>();
+            for (int i = 0; i < cabecalho.campos().size(); i++) {
+                colunas.put(cabecalho.campos().get(i).trim().toLowerCase(), i);
+            }
+            if (!colunas.containsKey("nome") || !colunas.containsKey("quantidade")) {
+                throw new IllegalArgumentException("O cabeçalho do CSV deve conter as colunas 'nome' e 'quantidade'");
+            }
+        }
+
+        private String campo(List<String> campos, String nome) {
+            Integer indice = colunas.get(nome);
+            if (indice == null || indice >= campos.size()) {
+                return null;
+            }
+            return campos.get(indice);
+        }
+
+        private Integer inteiro(List<String> campos, String nome) {
+            String texto = campo(campos, nome);
+            return texto == null || texto.isBlank() ? null : Integer.valueOf(texto.trim());
+        }
+
+        /**
+         * Lê um registro no formato RFC 4180: campos entre aspas podem conter vírgulas,
+         * quebras de linha e aspas duplicadas (""). Null no fim do conteúdo.
+         */
+        private Registro lerRegistro() throws IOException {
+            long inicio = linha;
+            List<String> campos = new ArrayList<>();
+            StringBuilder atual = new StringBuilder();
+            boolean entreAspas = false;
+            boolean leuAlgo = false;
+            int tamanho = 0;
+
+            int c;
+            while ((c = ler()) != -1) {
+                leuAlgo = true;
+                char ch = (char) c;
+                if (ch == '\n' && !entreAspas) {
+                    break;
+                }
+                if (++tamanho > tamanhoMaximoLinha) {
+                    if (ch != '\n') {
+                        pularResto();
+                    }
+                    return new Registro(inicio, null, entreAspas
+                            ? "Aspas não fechadas em " + tamanhoMaximoLinha + " caracteres"
+                            : linhaLonga());
+                }
+
+                if (entreAspas) {
+                    if (ch == '"') {
+                        if (espiar() == '"') {
+                            ler();
+                            atual.append('"');
+                        } else {
+                            entreAspas = false;
+                        }
+                    } else {
+                        atual.append(ch);
+                    }
+                } else if (ch == '"') {
+                    entreAspas = true;
+                } else if (ch == ',') {
+                    campos.add(atual.toString());
+                    atual.setLength(0);
+                } else if (ch != '\r') {
+                    atual.append(ch);
+                }
+            }
+
+            if (!leuAlgo) {
+                return null;
+            }
+            if (entreAspas) {
+                return new Registro(inicio, null, "Aspas não fechadas até o fim do arquivo");
+            }
+            campos.add(atual.toString());
+            return new Registro(inicio, campos, null);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.senac.ControlaStock.application.services;
+
+import com.senac.ControlaStock.domain.repository.ResumoEstoqueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reparo do resumo por localização de todos os usuários, executado na inicialização quando a
+ * aplicação sobe com --controlastock.resumo.reconstruir-na-inicializacao=true. Para um único
+ * usuário existe o endpoint POST /api/inventario/resumo/reconstruir.
+ */
+@Component
+@ConditionalOnProperty(name = "controlastock.resumo.reconstruir-na-inicializacao", havingValue = "true")
+public class ReconstrucaoResumoRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstrucaoResumoRunner.class);
+
+    @Autowired
+    private ResumoEstoqueRepository resumoEstoqueRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            resumoEstoqueRepository.apagarTodos();
+            resumoEstoqueRepository.recalcularTodos();
+        });
+        log.info("Resumo de estoque por localização reconstruído em {} ms", (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
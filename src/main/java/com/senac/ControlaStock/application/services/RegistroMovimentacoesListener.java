@@ -0,0 +1,36 @@
+package com.senac.ControlaStock.application.services;
+
+import com.senac.ControlaStock.domain.entities.MovimentacaoEstoque;
+import com.senac.ControlaStock.domain.entities.TipoMovimentacao;
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent;
+import com.senac.ControlaStock.domain.repository.MovimentacaoEstoqueRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Grava no histórico (movimentacao_estoque) as alterações de quantidade de cada evento. Roda de forma
+ * síncrona, na mesma transação da operação; os INSERTs saem no flush agrupados em lote JDBC.
+ */
+@Component
+public class RegistroMovimentacoesListener {
+
+    @Autowired
+    private MovimentacaoEstoqueRepository movimentacaoEstoqueRepository;
+
+    @EventListener
+    public void registrar(EstoqueAlteradoEvent evento) {
+        List<MovimentacaoEstoque> movimentacoes = evento.alteracoes().stream()
+                // Edições que não mexem na quantidade não entram no histórico de estoque
+                .filter(a -> a.delta() != 0 || a.tipo() != TipoMovimentacao.AJUSTE)
+                .map(a -> new MovimentacaoEstoque(null, a.itemId(), evento.usuarioId(), a.tipo(),
+                        a.delta(), a.quantidadeResultante(), evento.ocorridoEm()))
+                .toList();
+
+        if (!movimentacoes.isEmpty()) {
+            movimentacaoEstoqueRepository.saveAll(movimentacoes);
+        }
+    }
+}
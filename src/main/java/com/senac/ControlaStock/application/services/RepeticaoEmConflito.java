@@ -0,0 +1,89 @@
+package com.senac.ControlaStock.application.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Repetição das operações com controle otimista (@Version): quando o UPDATE encontra o item em
+ * outra versão, a transação inteira é refeita a partir de uma leitura nova, até o limite de
+ * tentativas. Entre uma tentativa e outra a espera cresce exponencialmente e é sorteada (jitter),
+ * para que as requisições que colidiram não voltem todas juntas. Esgotadas as tentativas a
+ * resposta é 409.
+ *
+ * <p>Cada conflito conta em controlastock.concorrencia.conflitos, por método e desfecho (repetido
+ * ou esgotado); a taxa de conflito de um endpoint é a razão com as chamadas do mesmo método em
+ * controlastock.servico.
+ */
+@Component
+public class RepeticaoEmConflito {
+
+    private static final String NOME_METRICA = "controlastock.concorrencia.conflitos";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${controlastock.concorrencia.tentativas:4}")
+    private int tentativas;
+
+    @Value("${controlastock.concorrencia.espera-inicial:10ms}")
+    private Duration esperaInicial;
+
+    @Value("${controlastock.concorrencia.espera-maxima:200ms}")
+    private Duration esperaMaxima;
+
+    /**
+     * Executa a operação, que precisa abrir a própria transação. Chamada dentro de uma transação de
+     * quem chamou, não repete: depois do conflito essa transação só pode terminar em rollback.
+     */
+    public <T> T executar(String metodo, Supplier<T> operacao) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operacao.get();
+        }
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return operacao.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (tentativa >= tentativas || !esperar(tentativa)) {
+                    contar(metodo, "esgotado");
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "O item foi alterado por outra requisição ao mesmo tempo. Tente novamente.", e);
+                }
+                contar(metodo, "repetido");
+            }
+        }
+    }
+
+    // Jitter completo: a espera é sorteada entre zero e min(máxima, inicial * 2^(tentativa - 1)).
+    // False se a thread foi interrompida.
+    private boolean esperar(int tentativa) {
+        long limite = Math.min(esperaMaxima.toNanos(), esperaInicial.toNanos() << Math.min(tentativa - 1, 20));
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(limite + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void contar(String metodo, String desfecho) {
+        Counter.builder(NOME_METRICA)
+                .description("Conflitos de versão em operações com controle otimista")
+                .tag("metodo", metodo)
+                .tag("desfecho", desfecho)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,99 @@
+package com.senac.ControlaStock.application.services;
+
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent;
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent.AlteracaoEstoque;
+import com.senac.ControlaStock.domain.repository.ResumoEstoqueRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém resumo_estoque_localizacao a partir dos eventos de alteração. Os deltas de todos os eventos
+ * de uma transação são somados em memória e aplicados uma vez, no beforeCommit: uma operação em lote
+ * gera um UPSERT por localização, e a linha do resumo fica bloqueada só durante o commit.
+ * As chaves são aplicadas sempre na mesma ordem para duas transações não se travarem mutuamente.
+ */
+@Component
+public class ResumoEstoqueListener {
+
+    private record Chave(Long usuarioId, String localizacao) {}
+
+    private static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::usuarioId)
+            .thenComparing(Chave::localizacao);
+
+    // Itens, quantidade e itens sem estoque
+    private static final class Delta {
+        long itens;
+        long quantidade;
+        long semEstoque;
+
+        void somar(int sinal, int quantidadeItem) {
+            itens += sinal;
+            quantidade += (long) sinal * quantidadeItem;
+            semEstoque += quantidadeItem == 0 ? sinal : 0;
+        }
+    }
+
+    @Autowired
+    private ResumoEstoqueRepository resumoEstoqueRepository;
+
+    @EventListener
+    public void acumular(EstoqueAlteradoEvent evento) {
+        boolean emTransacao = TransactionSynchronizationManager.isSynchronizationActive();
+        Map<Chave, Delta> deltas = emTransacao ? deltasDaTransacao() : new TreeMap<>(ORDEM);
+
+        for (AlteracaoEstoque alteracao : evento.alteracoes()) {
+            // O estado anterior sai do resumo e o novo entra (mesma localização ou não)
+            if (alteracao.localizacaoAnterior() != null) {
+                deltas.computeIfAbsent(new Chave(evento.usuarioId(), alteracao.localizacaoAnterior()), c -> new Delta())
+                        .somar(-1, alteracao.quantidadeAnterior());
+            }
+            if (alteracao.localizacao() != null) {
+                deltas.computeIfAbsent(new Chave(evento.usuarioId(), alteracao.localizacao()), c -> new Delta())
+                        .somar(1, alteracao.quantidadeResultante());
+            }
+        }
+
+        if (!emTransacao) {
+            aplicar(deltas);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Chave, Delta> deltasDaTransacao() {
+        Map<Chave, Delta> deltas = (Map<Chave, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            Map<Chave, Delta> novos = new TreeMap<>(ORDEM);
+            TransactionSynchronizationManager.bindResource(this, novos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    aplicar(novos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ResumoEstoqueListener.this);
+                }
+            });
+            deltas = novos;
+        }
+        return deltas;
+    }
+
+    private void aplicar(Map<Chave, Delta> deltas) {
+        deltas.forEach((chave, delta) -> {
+            if (delta.itens != 0 || delta.quantidade != 0 || delta.semEstoque != 0) {
+                resumoEstoqueRepository.aplicarDelta(
+                        chave.usuarioId(), chave.localizacao(), delta.itens, delta.quantidade, delta.semEstoque);
+            }
+        });
+        deltas.clear();
+    }
+}
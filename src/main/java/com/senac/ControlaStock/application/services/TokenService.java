@@ -4,22 +4,44 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.senac.ControlaStock.application.ports.TokenServicePorts;
 import com.senac.ControlaStock.domain.entities.Token;
 import com.senac.ControlaStock.domain.entities.Usuario;
 import com.senac.ControlaStock.domain.repository.TokenRepository;
 import com.senac.ControlaStock.domain.repository.UsuarioRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-public class TokenService implements TokenServicePorts {
+public class TokenService implements TokenServicePorts, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
 
     @Value("${spring.secretkey}")
     private String secret;
@@ -27,6 +49,18 @@ public class TokenService implements TokenServicePorts {
     @Value("${spring.tempo_expiracao}")
     private Long tempo_expiracao;
 
+    @Value("${controlastock.token.cache.tamanho-maximo:10000}")
+    private long tamanhoMaximoCache;
+
+    @Value("${controlastock.token.cache.ttl-maximo:PT5M}")
+    private Duration ttlMaximoCache;
+
+    @Value("${controlastock.token.maximo-por-usuario:10}")
+    private int maximoPorUsuario;
+
+    @Value("${controlastock.token.limpeza.tamanho-lote:1000}")
+    private int tamanhoLoteLimpeza;
+
     private String emissor = "CONTROLASTOCKER";
 
     @Autowired
@@ -35,55 +69,165 @@ public class TokenService implements TokenServicePorts {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: criados uma vez e reaproveitados
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    // Tokens já validados (assinatura + banco), indexados pelo SHA-256 do token
+    private Cache<String, TokenValidado> tokensValidados;
+
+    private record TokenValidado(String email, Instant expiraEm) {}
+
+    private final AtomicLong removidosPorExpiracao = new AtomicLong();
+    private final AtomicLong removidosPorLimite = new AtomicLong();
+
+    // MessageDigest não é thread-safe; uma instância por thread evita recriá-lo a cada requisição
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    });
+
+    @PostConstruct
+    void inicializar() {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(emissor)
+                .build();
+
+        // Cada entrada vive até o exp do JWT, limitado pelo TTL máximo configurado
+        this.tokensValidados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(Expiry.creating((String hash, TokenValidado validado) -> {
+                    Duration ateExpirar = Duration.between(Instant.now(), validado.expiraEm());
+                    if (ateExpirar.isNegative()) {
+                        return Duration.ZERO;
+                    }
+                    return ateExpirar.compareTo(ttlMaximoCache) < 0 ? ateExpirar : ttlMaximoCache;
+                }))
+                .recordStats()
+                .build();
+    }
+
     @Override
+    @Transactional
     public String gerarToken(Usuario usuario) {
-        Algorithm algorithm = Algorithm.HMAC256(secret);
-
+        Instant expiraEm = this.gerarDataExpiracao();
         String token = JWT.create()
                 .withIssuer(emissor)
                 .withSubject(usuario.getEmail())
-                .withExpiresAt(this.gerarDataExpiracao())
+                // Sem um id próprio, dois logins no mesmo segundo gerariam o mesmo token (e o mesmo hash)
+                .withJWTId(UUID.randomUUID().toString())
+                .withExpiresAt(expiraEm)
                 .sign(algorithm);
 
-        tokenRepository.save(new Token(null, token, usuario));
+        tokenRepository.save(new Token(null, calcularHash(token), expiraEm, usuario));
+        revogarExcedentes(usuario);
         return token;
     }
 
+    // Acima do limite de tokens ativos por usuário, os mais antigos são revogados
+    private void revogarExcedentes(Usuario usuario) {
+        List<TokenRepository.TokenAtivo> ativos = tokenRepository.buscarAtivosDoUsuario(usuario.getId(), Instant.now());
+        if (ativos.size() <= maximoPorUsuario) {
+            return;
+        }
+        List<TokenRepository.TokenAtivo> excedentes = ativos.subList(maximoPorUsuario, ativos.size());
+        tokenRepository.deleteAllByIdInBatch(excedentes.stream().map(TokenRepository.TokenAtivo::getId).toList());
+        excedentes.forEach(excedente -> tokensValidados.invalidate(excedente.getHash()));
+        removidosPorLimite.addAndGet(excedentes.size());
+    }
+
+    /**
+     * Remove os tokens expirados em lotes, cada um na sua própria transação: nenhum lock dura mais
+     * que um lote, e a validação e o login seguem normalmente enquanto a limpeza roda.
+     */
+    @Scheduled(initialDelayString = "${controlastock.token.limpeza.intervalo:PT10M}",
+            fixedDelayString = "${controlastock.token.limpeza.intervalo:PT10M}")
+    public void removerExpirados() {
+        Instant agora = Instant.now();
+        long removidos = 0;
+        List<Long> ids;
+        do {
+            ids = tokenRepository.buscarIdsExpirados(agora, Limit.of(tamanhoLoteLimpeza));
+            if (!ids.isEmpty()) {
+                tokenRepository.deleteAllByIdInBatch(ids);
+                removidos += ids.size();
+            }
+        } while (ids.size() == tamanhoLoteLimpeza);
+
+        if (removidos > 0) {
+            removidosPorExpiracao.addAndGet(removidos);
+            log.info("Removidos {} tokens expirados", removidos);
+        }
+    }
+
 
     @Override
-    @Transactional
     public String validarToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer(emissor)
-                    .build();
+        String hash = calcularHash(token);
 
+        TokenValidado emCache = tokensValidados.getIfPresent(hash);
+        if (emCache != null && emCache.expiraEm().isAfter(Instant.now())) {
+            return emCache.email();
+        }
+
+        try {
             var payload = verifier.verify(token);
             String email = payload.getSubject();
 
-            // Verificação validade do token no banco de dados
-            var tokenResult = tokenRepository.findByToken(token).orElse(null);
-            if (tokenResult == null) {
+            // Verificação validade do token no banco de dados (busca pelo índice único do hash)
+            if (!tokenRepository.existsByHash(hash)) {
                 return null;
             }
 
-            // O Token é válido e existe. Retorna o email.
+            // O Token é válido e existe. Guarda no cache e retorna o email.
+            Instant expiraEm = payload.getExpiresAtAsInstant() != null
+                    ? payload.getExpiresAtAsInstant()
+                    : Instant.now().plus(ttlMaximoCache);
+            tokensValidados.put(hash, new TokenValidado(email, expiraEm));
             return email;
 
         } catch (JWTVerificationException e) {
-            System.err.println("Erro de validação JWT: " + e.getMessage());
+            log.debug("Erro de validação JWT: {}", e.getMessage());
             return null;
 
         } catch (Exception e) {
-            System.err.println("Erro inesperado durante a validação do token: " + e.getMessage());
+            log.warn("Erro inesperado durante a validação do token: {}", e.getMessage());
             return null;
         }
     }
 
+    @Override
+    @Transactional
+    public void revogarToken(String token) {
+        String hash = calcularHash(token);
+        tokenRepository.apagarPorHash(hash);
+        tokensValidados.invalidate(hash);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, tokensValidados, "tokens_validados");
+        FunctionCounter.builder("controlastock.tokens.removidos", removidosPorExpiracao, AtomicLong::get)
+                .description("Tokens removidos do banco sem logout")
+                .tag("motivo", "expirado")
+                .register(registry);
+        FunctionCounter.builder("controlastock.tokens.removidos", removidosPorLimite, AtomicLong::get)
+                .description("Tokens removidos do banco sem logout")
+                .tag("motivo", "limite-por-usuario")
+                .register(registry);
+    }
+
+    private String calcularHash(String token) {
+        return HexFormat.of().formatHex(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
     private Instant gerarDataExpiracao() {
         var dataAtual = LocalDateTime.now();
         dataAtual = dataAtual.plusMinutes(tempo_expiracao);
         return dataAtual.toInstant(ZoneOffset.of("-03:00"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package com.senac.ControlaStock.application.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache em memória de usuários por email, usado nos caminhos que resolvem o usuário a cada
+ * requisição (header X-User-Email e UserDetailsService). Só usuários encontrados são guardados,
+ * para que um cadastro novo seja visível imediatamente.
+ * <p>
+ * Neste nó, uma alteração gravada é vista pela próxima leitura: a invalidação roda depois do commit
+ * e uma leitura do banco que começou antes dela não é guardada. O cache é local, então outros nós
+ * continuam vendo o usuário antigo por até {@code controlastock.usuario.cache.ttl}.
+ */
+@Component
+public class UsuarioCache implements MeterBinder {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${controlastock.usuario.cache.tamanho-maximo:10000}")
+    private long tamanhoMaximo;
+
+    @Value("${controlastock.usuario.cache.ttl:PT2M}")
+    private Duration ttl;
+
+    private Cache<String, Usuario> usuariosPorEmail;
+
+    // Incrementada a cada invalidação; uma leitura do banco só fica no cache se nenhuma
+    // invalidação aconteceu desde que ela começou
+    private final AtomicLong geracao = new AtomicLong();
+
+    @PostConstruct
+    void inicializar() {
+        this.usuariosPorEmail = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // A consulta fica fora do cache: o get(chave, função) do Caffeine executa a função dentro do
+    // lock do ConcurrentHashMap, e um acesso ao banco ali fixaria a virtual thread na carrier
+    public Optional<Usuario> buscarPorEmail(String email) {
+        Usuario emCache = usuariosPorEmail.getIfPresent(email);
+        if (emCache != null) {
+            return Optional.of(emCache);
+        }
+        long geracaoLida = geracao.get();
+        Optional<Usuario> usuario = usuarioRepository.findByEmail(email);
+        usuario.ifPresent(u -> {
+            usuariosPorEmail.put(email, u);
+            // Conferido depois do put: se a invalidação veio antes da conferência, a entrada sai
+            // aqui; se veio depois, ela mesma remove a entrada
+            if (geracao.get() != geracaoLida) {
+                usuariosPorEmail.invalidate(email);
+            }
+        });
+        return usuario;
+    }
+
+    /**
+     * Remove o email do cache agora e, dentro de uma transação, de novo depois do commit, quando
+     * a alteração já é visível para as leituras do banco.
+     */
+    public void invalidar(String email) {
+        if (email == null) {
+            return;
+        }
+        remover(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remover(email);
+                }
+            });
+        }
+    }
+
+    // Junto com o cache de segundo nível do Hibernate, que tem o mesmo ttl e também é local ao nó
+    private void remover(String email) {
+        geracao.incrementAndGet();
+        usuariosPorEmail.invalidate(email);
+        usuarioRepository.descartarCache();
+    }
+
+    public CacheStats estatisticas() {
+        return usuariosPorEmail.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, usuariosPorEmail, "usuarios_por_email");
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -23,7 +24,11 @@ public class UsuarioService implements UsuarioServicePorts {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UsuarioCache usuarioCache;
+
     @Override
+    @Transactional(readOnly = true)
     public List<UsuarioResponseDto> listarTodos() {
         return usuarioRepository.findAll()
                 .stream()
@@ -32,6 +37,7 @@ public class UsuarioService implements UsuarioServicePorts {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UsuarioResponseDto buscarPorId(Long id) {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com ID " + id + " não encontrado."));
@@ -61,6 +67,7 @@ public class UsuarioService implements UsuarioServicePorts {
         Usuario usuarioExistente = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com ID " + id + " não encontrado para atualização."));
 
+        String emailAnterior = usuarioExistente.getEmail();
         usuarioExistente.setNome(requestDto.nome());
         usuarioExistente.setCnpj(requestDto.cnpj());
         usuarioExistente.setCep(requestDto.cep());
@@ -70,19 +77,20 @@ public class UsuarioService implements UsuarioServicePorts {
             usuarioExistente.setSenha(passwordEncoder.encode(requestDto.senha()));
         }
 
-        Usuario usuarioAtualizado = usuarioRepository.save(usuarioExistente);
+        Usuario usuarioAtualizado = salvarInvalidandoCache(usuarioExistente, emailAnterior);
         return toResponseDto(usuarioAtualizado);
     }
 
     @Override
     public void removerUsuario(Long id) {
-        if (!usuarioRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com ID " + id + " não encontrado para remoção.");
-        }
-        usuarioRepository.deleteById(id);
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com ID " + id + " não encontrado para remoção."));
+        usuarioRepository.delete(usuario);
+        usuarioCache.invalidar(usuario.getEmail());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UsuarioResponseDto buscarPorEmail(String email) {
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com email " + email + " não encontrado."));
@@ -117,10 +125,22 @@ public class UsuarioService implements UsuarioServicePorts {
             usuarioExistente.setSenha(passwordEncoder.encode(requestDto.senha()));
         }
 
-        Usuario usuarioAtualizado = usuarioRepository.save(usuarioExistente);
+        Usuario usuarioAtualizado = salvarInvalidandoCache(usuarioExistente, email);
         return toResponseDto(usuarioAtualizado);
     }
 
+    /**
+     * Invalida o email antigo e o novo depois de gravar, quando a alteração já tem commit; uma
+     * leitura concorrente que pegou o usuário antigo não fica no cache (ver {@link UsuarioCache}).
+     */
+    private Usuario salvarInvalidandoCache(Usuario usuario, String emailAnterior) {
+        Usuario usuarioSalvo = usuarioRepository.save(usuario);
+
+        usuarioCache.invalidar(emailAnterior);
+        usuarioCache.invalidar(usuarioSalvo.getEmail());
+        return usuarioSalvo;
+    }
+
     private UsuarioResponseDto toResponseDto(Usuario entity) {
         return new UsuarioResponseDto(
                 entity.getId(),
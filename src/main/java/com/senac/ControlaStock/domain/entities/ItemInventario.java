@@ -1,19 +1,26 @@
 package com.senac.ControlaStock.domain.entities;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 
 @Entity
+// Tabela particionada por hash de usuario_id, com os índices de cada partição: ver db/migration
 @Table(name = "itens_inventario")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemInventario {
 
+    // Sequência com alocação em blocos (pooled): o Hibernate não precisa de um round trip por
+    // INSERT para descobrir o id, o que permite agrupar os INSERTs em lotes JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_inventario_seq")
+    @SequenceGenerator(name = "itens_inventario_seq", sequenceName = "itens_inventario_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -28,7 +35,30 @@ public class ItemInventario {
     @Column(nullable = false)
     private String localizacao;
 
+    // Abaixo deste saldo o item gera alerta de estoque baixo; nulo desativa o alerta
+    private Integer estoqueMinimo;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
+
+    // Chave de partição (a mesma coluna da associação, só leitura): o Hibernate a inclui no WHERE dos
+    // UPDATEs e DELETEs da entidade, que assim tocam só a partição do usuário em vez de procurar o
+    // id em todas. Acompanha o usuário em setUsuario.
+    @PartitionKey
+    @Setter(AccessLevel.NONE)
+    @Column(name = "usuario_id", insertable = false, updatable = false)
+    private Long usuarioId;
+
+    // Controle otimista: incrementada a cada UPDATE, que só afeta a linha se ela ainda estiver na
+    // versão lida (senão OptimisticLockingFailureException). Também vai na resposta, para o cliente
+    // devolvê-la na atualização.
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    public void setUsuario(Usuario usuario) {
+        this.usuario = usuario;
+        this.usuarioId = usuario == null ? null : usuario.getId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.senac.ControlaStock.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Registro imutável (append-only) de cada mudança de quantidade de um item. Guarda também o saldo
+ * resultante, então o saldo em qualquer instante é o da última movimentação até ele, sem somar o
+ * histórico. Não há chave estrangeira para o item: o histórico sobrevive à exclusão.
+ */
+@Entity
+@Table(name = "movimentacao_estoque")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimentacaoEstoque {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimentacao_estoque_seq")
+    @SequenceGenerator(name = "movimentacao_estoque_seq", sequenceName = "movimentacao_estoque_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "item_id", nullable = false, updatable = false)
+    private Long itemId;
+
+    @Column(name = "usuario_id", nullable = false, updatable = false)
+    private Long usuarioId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    private TipoMovimentacao tipo;
+
+    @Column(nullable = false, updatable = false)
+    private Integer delta;
+
+    @Column(name = "quantidade_resultante", nullable = false, updatable = false)
+    private Integer quantidadeResultante;
+
+    @Column(name = "ocorrido_em", nullable = false, updatable = false)
+    private Instant ocorridoEm;
+}
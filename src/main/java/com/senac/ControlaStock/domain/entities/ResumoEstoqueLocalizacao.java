@@ -0,0 +1,46 @@
+package com.senac.ControlaStock.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Totais do estoque de um usuário por localização, mantidos de forma incremental a cada alteração
+ * de item (ResumoEstoqueListener). Pode ser recalculado a partir de itens_inventario.
+ */
+@Entity
+@Table(name = "resumo_estoque_localizacao")
+@IdClass(ResumoEstoqueLocalizacao.Chave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoEstoqueLocalizacao {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Id
+    @Column(nullable = false)
+    private String localizacao;
+
+    @Column(name = "total_itens", nullable = false)
+    private Long totalItens;
+
+    @Column(name = "quantidade_total", nullable = false)
+    private Long quantidadeTotal;
+
+    @Column(name = "itens_sem_estoque", nullable = false)
+    private Long itensSemEstoque;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private Long usuarioId;
+        private String localizacao;
+    }
+}
@@ -0,0 +1,12 @@
+package com.senac.ControlaStock.domain.entities;
+
+public enum TipoMovimentacao {
+    // Item criado (cadastro ou importação); delta = quantidade inicial
+    CRIACAO,
+    // Quantidade alterada pela edição do item
+    AJUSTE,
+    ENTRADA,
+    SAIDA,
+    // Item excluído; delta = -quantidade e o saldo resultante é zero
+    REMOCAO
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "tokens")
 @Data
@@ -16,10 +18,14 @@ public class Token {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, length = 1000)
-    private String token;
+    // SHA-256 do JWT em hexadecimal; o token em si não é guardado
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(name = "expira_em", nullable = false)
+    private Instant expiraEm;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
-}
\ No newline at end of file
+}
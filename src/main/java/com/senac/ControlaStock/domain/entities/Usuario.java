@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +15,10 @@ import java.util.List;
 
 @Entity
 @Table(name = "usuario")
+// Cache de segundo nível (região em CacheSegundoNivelConfig): carregamentos pelo id, inclusive das
+// associações, e resultados de findByEmail. Invalidado junto com o UsuarioCache.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,25 @@
+package com.senac.ControlaStock.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versão do inventário de um usuário: incrementada a cada alteração dos seus itens, na mesma
+ * transação. Serve de ETag para as consultas, sem precisar ler itens_inventario.
+ */
+@Entity
+@Table(name = "versao_inventario")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoInventario {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private Long versao;
+}
@@ -0,0 +1,38 @@
+package com.senac.ControlaStock.domain.events;
+
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.entities.TipoMovimentacao;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Publicado pelo ItemInventarioService, dentro da transação da operação, sempre que itens de um
+ * usuário são criados, alterados ou removidos. Uma operação em lote gera um único evento.
+ * Cada alteração traz o estado anterior e o novo (quantidade e localização), o que basta para
+ * manter agregados de forma incremental. A versão do inventário é a atribuída à operação com a
+ * linha de versao_inventario bloqueada, então segue a ordem dos commits do usuário.
+ */
+public record EstoqueAlteradoEvent(
+        Long usuarioId,
+        long versaoInventario,
+        Instant ocorridoEm,
+        List<AlteracaoEstoque> alteracoes
+) {
+
+    public record AlteracaoEstoque(
+            Long itemId,
+            TipoMovimentacao tipo,
+            int delta,
+            int quantidadeResultante,
+            String localizacaoAnterior,  // Nula na criação
+            String localizacao,          // Nula na remoção
+            // A entidade alterada; depois do commit reflete o estado final da operação (na remoção, o último)
+            ItemInventario item
+    ) {
+
+        public int quantidadeAnterior() {
+            return quantidadeResultante - delta;
+        }
+    }
+}
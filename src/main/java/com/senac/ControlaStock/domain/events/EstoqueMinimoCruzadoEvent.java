@@ -0,0 +1,19 @@
+package com.senac.ControlaStock.domain.events;
+
+import java.time.Instant;
+
+/**
+ * Publicado pelo ItemInventarioService quando uma operação faz o item cruzar o estoque mínimo:
+ * ficar abaixo dele (abaixoDoMinimo = true) ou voltar a atendê-lo. Operações que mantêm o item do
+ * mesmo lado do limite não geram evento.
+ */
+public record EstoqueMinimoCruzadoEvent(
+        Long usuarioId,
+        Long itemId,
+        String nome,
+        String localizacao,
+        int quantidade,
+        Integer estoqueMinimo,
+        boolean abaixoDoMinimo,
+        Instant ocorridoEm
+) {}
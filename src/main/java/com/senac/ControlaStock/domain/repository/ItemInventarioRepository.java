@@ -1,18 +1,147 @@
 package com.senac.ControlaStock.domain.repository;
 
 import com.senac.ControlaStock.domain.entities.ItemInventario;
-import com.senac.ControlaStock.domain.entities.Usuario;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ItemInventarioRepository extends JpaRepository<ItemInventario, Long> {
+public interface ItemInventarioRepository extends ListCrudRepository<ItemInventario, Long>, ItemInventarioRepositoryCustom {
 
-    List<ItemInventario> findByNomeContainingIgnoreCase(String nome);
+    // Consultas de leitura com projeção dinâmica: o tipo pedido pode ser a entidade (quando o item
+    // vai ser alterado) ou um record com as mesmas propriedades, montado direto do resultado por
+    // constructor expression, sem entidade gerenciada. O dono faz parte da condição, então
+    // existência e permissão saem da mesma consulta pelo índice.
 
-    List<ItemInventario> findByLocalizacaoContainingIgnoreCase(String localizacao);
+    <T> Optional<T> findByIdAndUsuarioId(Long id, Long usuarioId, Class<T> tipo);
 
-    List<ItemInventario> findByUsuario(Usuario usuario);
-}
\ No newline at end of file
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
+
+    // Ordem estável: a lista completa é servida com ETag forte, então o corpo de uma mesma versão
+    // precisa ser sempre o mesmo
+    <T> List<T> findByUsuarioIdOrderById(Long usuarioId, Class<T> tipo);
+
+    // Paginação por cursor (keyset): cada página continua a partir da última chave lida,
+    // usando os índices (usuario_id, <ordenação>, id) em vez de OFFSET.
+
+    @Query("SELECT i FROM ItemInventario i WHERE i.usuario.id = :usuarioId AND i.id > :id ORDER BY i.id")
+    <T> List<T> buscarPaginaPorId(@Param("usuarioId") Long usuarioId,
+                                  @Param("id") Long id,
+                                  Limit limite,
+                                  Class<T> tipo);
+
+    @Query("SELECT i FROM ItemInventario i WHERE i.usuario.id = :usuarioId ORDER BY i.nome, i.id")
+    <T> List<T> buscarPrimeiraPaginaPorNome(@Param("usuarioId") Long usuarioId, Limit limite, Class<T> tipo);
+
+    @Query("SELECT i FROM ItemInventario i WHERE i.usuario.id = :usuarioId "
+            + "AND (i.nome, i.id) > (:nome, :id) ORDER BY i.nome, i.id")
+    <T> List<T> buscarPaginaPorNome(@Param("usuarioId") Long usuarioId,
+                                    @Param("nome") String nome,
+                                    @Param("id") Long id,
+                                    Limit limite,
+                                    Class<T> tipo);
+
+    @Query("SELECT i FROM ItemInventario i WHERE i.usuario.id = :usuarioId ORDER BY i.localizacao, i.id")
+    <T> List<T> buscarPrimeiraPaginaPorLocalizacao(@Param("usuarioId") Long usuarioId, Limit limite, Class<T> tipo);
+
+    @Query("SELECT i FROM ItemInventario i WHERE i.usuario.id = :usuarioId "
+            + "AND (i.localizacao, i.id) > (:localizacao, :id) ORDER BY i.localizacao, i.id")
+    <T> List<T> buscarPaginaPorLocalizacao(@Param("usuarioId") Long usuarioId,
+                                           @Param("localizacao") String localizacao,
+                                           @Param("id") Long id,
+                                           Limit limite,
+                                           Class<T> tipo);
+
+    // Itens abaixo do estoque mínimo, por cursor de id. Lê só o índice parcial idx_itens_abaixo_minimo
+    // (migração V1), cujo tamanho depende dos itens em falta e não do inventário inteiro.
+    @Query(value = "SELECT id, nome, descricao, quantidade, localizacao, estoque_minimo AS \"estoqueMinimo\", versao "
+            + "FROM itens_inventario WHERE usuario_id = :usuarioId AND abaixo_do_minimo "
+            + "AND id > :id ORDER BY id LIMIT :limite", nativeQuery = true)
+    <T> List<T> buscarPaginaAbaixoDoMinimo(@Param("usuarioId") Long usuarioId,
+                                           @Param("id") Long id,
+                                           @Param("limite") int limite,
+                                           Class<T> tipo);
+
+    // Remove o item só se for do usuário, devolvendo a linha removida (saldo e localização para o
+    // histórico e o resumo) no mesmo comando. Vazio: não existe ou é de outro usuário.
+    @Transactional
+    @Query(value = "DELETE FROM itens_inventario WHERE id = :id AND usuario_id = :usuarioId RETURNING *", nativeQuery = true)
+    Optional<ItemInventario> deleteByIdAndUsuarioId(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
+
+    // Movimentações de estoque atômicas: um único UPDATE condicional confere o dono (e o saldo:
+    // suficiente na retirada, sem passar do máximo do integer na entrada) e devolve a linha já atualizada, sem read-modify-write nem SELECT extra.
+    // Vazio significa que nenhuma linha satisfez as condições. A versão do item é incrementada, sem
+    // ser conferida: não há leitura anterior a proteger, mas quem leu o item antes passa a ter
+    // conflito ao gravá-lo.
+
+    @Transactional
+    @Query(value = "UPDATE itens_inventario SET quantidade = quantidade + :quantidade, versao = versao + 1 "
+            + "WHERE id = :id AND usuario_id = :usuarioId AND quantidade <= 2147483647 - :quantidade RETURNING *", nativeQuery = true)
+    Optional<ItemInventario> adicionarQuantidade(@Param("id") Long id,
+                                                 @Param("usuarioId") Long usuarioId,
+                                                 @Param("quantidade") Integer quantidade);
+
+    @Transactional
+    @Query(value = "UPDATE itens_inventario SET quantidade = quantidade - :quantidade, versao = versao + 1 "
+            + "WHERE id = :id AND usuario_id = :usuarioId AND quantidade >= :quantidade RETURNING *", nativeQuery = true)
+    Optional<ItemInventario> removerQuantidade(@Param("id") Long id,
+                                               @Param("usuarioId") Long usuarioId,
+                                               @Param("quantidade") Integer quantidade);
+
+    // Carrega todos os itens de um lote de movimentações em uma única consulta, já bloqueados
+    // (SELECT ... FOR UPDATE) e em ordem de id para que lotes concorrentes não entrem em deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ItemInventario i WHERE i.id IN :ids AND i.usuario.id = :usuarioId ORDER BY i.id")
+    List<ItemInventario> buscarParaMovimentacao(@Param("ids") Collection<Long> ids,
+                                                @Param("usuarioId") Long usuarioId);
+
+    interface ResultadoBusca {
+        Long getId();
+        String getNome();
+        String getDescricao();
+        Integer getQuantidade();
+        String getLocalizacao();
+        Double getRelevancia();
+        Double getDistancia();
+    }
+
+    // Busca aproximada nos itens do usuário (pg_trgm): o termo precisa ser parecido com alguma
+    // palavra do documento (<%) e os resultados saem em ordem de distância (<<->), que o índice GiST
+    // idx_itens_busca_trgm (migração V1) percorre já ordenado. A expressão do documento precisa ser
+    // idêntica à do índice.
+    // Paginação por cursor em (distância, id), como nas listagens. Ordenar a consulta interna também
+    // por id tiraria o plano do índice, então ela ordena só pela distância e traz as páginas com
+    // todos os empates do último item (WITH TIES); a externa desempata por id. A primeira página usa
+    // distância -1. O índice não começa a leitura numa distância, só filtra até ela, então páginas
+    // fundas ainda custam mais; o cursor garante que nenhuma linha se repita ou fique de fora.
+    @Query(value = "SELECT * FROM ("
+            + "SELECT i.id AS id, i.nome AS nome, i.descricao AS descricao, i.quantidade AS quantidade, "
+            + "i.localizacao AS localizacao, "
+            + "1 - (:termo <<-> lower(i.nome || ' ' || coalesce(i.descricao, '') || ' ' || i.localizacao)) AS relevancia, "
+            + ":termo <<-> lower(i.nome || ' ' || coalesce(i.descricao, '') || ' ' || i.localizacao) AS distancia "
+            + "FROM itens_inventario i "
+            + "WHERE i.usuario_id = :usuarioId "
+            + "AND :termo <% lower(i.nome || ' ' || coalesce(i.descricao, '') || ' ' || i.localizacao) "
+            + "AND (:termo <<-> lower(i.nome || ' ' || coalesce(i.descricao, '') || ' ' || i.localizacao), i.id) "
+            + "> (CAST(:distancia AS real), :id) "
+            + "ORDER BY :termo <<-> lower(i.nome || ' ' || coalesce(i.descricao, '') || ' ' || i.localizacao) "
+            + "FETCH FIRST (:limite) ROWS WITH TIES"
+            + ") b ORDER BY distancia, id LIMIT :limite", nativeQuery = true)
+    List<ResultadoBusca> buscarPorTexto(@Param("usuarioId") Long usuarioId,
+                                        @Param("termo") String termo,
+                                        @Param("distancia") double distancia,
+                                        @Param("id") Long id,
+                                        @Param("limite") int limite);
+
+    // Executa os UPDATEs pendentes da transação (implementado pelo JpaRepository)
+    void flush();
+}
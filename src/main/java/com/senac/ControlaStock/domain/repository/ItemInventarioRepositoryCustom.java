@@ -0,0 +1,12 @@
+package com.senac.ControlaStock.domain.repository;
+
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+
+import java.util.List;
+
+public interface ItemInventarioRepositoryCustom {
+
+    // Grava o lote em uma transação própria e descarta as entidades do contexto de persistência,
+    // para que importações grandes não acumulem objetos em memória.
+    void salvarEmLote(List<ItemInventario> itens);
+}
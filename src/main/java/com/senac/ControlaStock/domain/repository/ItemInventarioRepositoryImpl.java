@@ -0,0 +1,27 @@
+package com.senac.ControlaStock.domain.repository;
+
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+class ItemInventarioRepositoryImpl implements ItemInventarioRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void salvarEmLote(List<ItemInventario> itens) {
+        try {
+            for (ItemInventario item : itens) {
+                entityManager.persist(item);
+            }
+            entityManager.flush();
+        } finally {
+            entityManager.clear();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.senac.ControlaStock.domain.repository;
+
+import com.senac.ControlaStock.domain.entities.MovimentacaoEstoque;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface MovimentacaoEstoqueRepository extends ListCrudRepository<MovimentacaoEstoque, Long> {
+
+    boolean existsByItemIdAndUsuarioId(Long itemId, Long usuarioId);
+
+    // Histórico por cursor, das mais recentes para as mais antigas (índice item_id, ocorrido_em, id)
+    @Query("SELECT m FROM MovimentacaoEstoque m WHERE m.itemId = :itemId AND m.usuarioId = :usuarioId "
+            + "ORDER BY m.ocorridoEm DESC, m.id DESC")
+    List<MovimentacaoEstoque> buscarPrimeiraPaginaHistorico(@Param("itemId") Long itemId,
+                                                            @Param("usuarioId") Long usuarioId,
+                                                            Limit limite);
+
+    @Query("SELECT m FROM MovimentacaoEstoque m WHERE m.itemId = :itemId AND m.usuarioId = :usuarioId "
+            + "AND (m.ocorridoEm, m.id) < (:ocorridoEm, :id) ORDER BY m.ocorridoEm DESC, m.id DESC")
+    List<MovimentacaoEstoque> buscarPaginaHistorico(@Param("itemId") Long itemId,
+                                                    @Param("usuarioId") Long usuarioId,
+                                                    @Param("ocorridoEm") Instant ocorridoEm,
+                                                    @Param("id") Long id,
+                                                    Limit limite);
+
+    // Última movimentação até o instante: o saldo dela é o saldo do item naquele momento
+    @Query("SELECT m FROM MovimentacaoEstoque m WHERE m.itemId = :itemId AND m.usuarioId = :usuarioId "
+            + "AND m.ocorridoEm <= :instante ORDER BY m.ocorridoEm DESC, m.id DESC")
+    List<MovimentacaoEstoque> buscarUltimaAte(@Param("itemId") Long itemId,
+                                              @Param("usuarioId") Long usuarioId,
+                                              @Param("instante") Instant instante,
+                                              Limit limite);
+}
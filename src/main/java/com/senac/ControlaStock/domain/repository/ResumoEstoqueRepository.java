@@ -0,0 +1,64 @@
+package com.senac.ControlaStock.domain.repository;
+
+import com.senac.ControlaStock.domain.entities.ResumoEstoqueLocalizacao;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ResumoEstoqueRepository extends ListCrudRepository<ResumoEstoqueLocalizacao, ResumoEstoqueLocalizacao.Chave> {
+
+    List<ResumoEstoqueLocalizacao> findByUsuarioIdAndTotalItensGreaterThanOrderByLocalizacao(Long usuarioId, Long totalItens);
+
+    // Os comandos nativos declaram a tabela que alteram: sem isso o Hibernate não sabe o que mudou e,
+    // antes de cada execução, descarrega no banco todas as entidades alteradas na sessão
+
+    // Soma os deltas ao resumo da localização, criando a linha se ainda não existir
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_estoque_localizacao"))
+    @Query(value = "INSERT INTO resumo_estoque_localizacao AS r "
+            + "(usuario_id, localizacao, total_itens, quantidade_total, itens_sem_estoque) "
+            + "VALUES (:usuarioId, :localizacao, :itens, :quantidade, :semEstoque) "
+            + "ON CONFLICT (usuario_id, localizacao) DO UPDATE SET "
+            + "total_itens = r.total_itens + EXCLUDED.total_itens, "
+            + "quantidade_total = r.quantidade_total + EXCLUDED.quantidade_total, "
+            + "itens_sem_estoque = r.itens_sem_estoque + EXCLUDED.itens_sem_estoque", nativeQuery = true)
+    void aplicarDelta(@Param("usuarioId") Long usuarioId,
+                      @Param("localizacao") String localizacao,
+                      @Param("itens") long itens,
+                      @Param("quantidade") long quantidade,
+                      @Param("semEstoque") long semEstoque);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_estoque_localizacao"))
+    @Query(value = "DELETE FROM resumo_estoque_localizacao WHERE usuario_id = :usuarioId", nativeQuery = true)
+    void apagarDoUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_estoque_localizacao"))
+    @Query(value = "INSERT INTO resumo_estoque_localizacao "
+            + "(usuario_id, localizacao, total_itens, quantidade_total, itens_sem_estoque) "
+            + "SELECT usuario_id, localizacao, count(*), sum(quantidade), count(*) FILTER (WHERE quantidade = 0) "
+            + "FROM itens_inventario WHERE usuario_id = :usuarioId GROUP BY usuario_id, localizacao", nativeQuery = true)
+    void recalcularDoUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_estoque_localizacao"))
+    @Query(value = "DELETE FROM resumo_estoque_localizacao", nativeQuery = true)
+    void apagarTodos();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_estoque_localizacao"))
+    @Query(value = "INSERT INTO resumo_estoque_localizacao "
+            + "(usuario_id, localizacao, total_itens, quantidade_total, itens_sem_estoque) "
+            + "SELECT usuario_id, localizacao, count(*), sum(quantidade), count(*) FILTER (WHERE quantidade = 0) "
+            + "FROM itens_inventario GROUP BY usuario_id, localizacao", nativeQuery = true)
+    void recalcularTodos();
+}
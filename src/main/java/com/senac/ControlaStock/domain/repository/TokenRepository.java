@@ -1,15 +1,38 @@
 package com.senac.ControlaStock.domain.repository;
 
 import com.senac.ControlaStock.domain.entities.Token;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.List;
 
 @Repository
-public interface TokenRepository extends JpaRepository<Token, Long> {
+public interface TokenRepository extends ListCrudRepository<Token, Long> {
 
-    Optional<Token> findByToken(String token);
-    
-    void deleteByToken(String token);
-}
\ No newline at end of file
+    boolean existsByHash(String hash);
+
+    @Modifying
+    @Query("DELETE FROM Token t WHERE t.hash = :hash")
+    void apagarPorHash(@Param("hash") String hash);
+
+    // Tokens ainda válidos do usuário, do mais novo para o mais antigo
+    @Query("SELECT t.id AS id, t.hash AS hash FROM Token t "
+            + "WHERE t.usuario.id = :usuarioId AND t.expiraEm > :agora ORDER BY t.id DESC")
+    List<TokenAtivo> buscarAtivosDoUsuario(@Param("usuarioId") Long usuarioId, @Param("agora") Instant agora);
+
+    @Query("SELECT t.id FROM Token t WHERE t.expiraEm <= :agora ORDER BY t.expiraEm")
+    List<Long> buscarIdsExpirados(@Param("agora") Instant agora, Limit limite);
+
+    // Um único DELETE ... WHERE id IN (...), sem carregar as entidades (implementado pelo JpaRepository)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    interface TokenAtivo {
+        Long getId();
+        String getHash();
+    }
+}
@@ -1,17 +1,35 @@
 package com.senac.ControlaStock.domain.repository;
 
 import com.senac.ControlaStock.domain.entities.Usuario;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends ListCrudRepository<Usuario, Long>, UsuarioRepositoryCustom {
 
+    // Cache de consultas: guarda o id encontrado (o usuário vem do cache da entidade) e é invalidado
+    // por qualquer escrita na tabela usuario, que são raras
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuario-por-email")
+    })
     Optional<Usuario> findByEmail(String email);
 
     Optional<Usuario> findByCnpj(String cnpj);
 
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.senha = :senha WHERE u.email = :email")
+    void atualizarSenha(@Param("email") String email, @Param("senha") String senha);
+
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.senac.ControlaStock.domain.repository;
+
+public interface UsuarioRepositoryCustom {
+
+    // Descarta os usuários do cache de segundo nível (entidades e consultas por email), para que a
+    // próxima leitura venha do banco. Chamado pelo UsuarioCache a cada invalidação.
+    void descartarCache();
+}
@@ -0,0 +1,21 @@
+package com.senac.ControlaStock.domain.repository;
+
+import com.senac.ControlaStock.domain.entities.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+
+class UsuarioRepositoryImpl implements UsuarioRepositoryCustom {
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    // A região inteira: o cache é por id e a invalidação vem pelo email, e alterações de usuário são raras
+    @Override
+    public void descartarCache() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Usuario.class);
+        cache.evictQueryRegion("usuario-por-email");
+    }
+}
@@ -0,0 +1,31 @@
+package com.senac.ControlaStock.domain.repository;
+
+import com.senac.ControlaStock.domain.entities.VersaoInventario;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface VersaoInventarioRepository extends ListCrudRepository<VersaoInventario, Long> {
+
+    @Query(value = "SELECT versao FROM versao_inventario WHERE usuario_id = :usuarioId", nativeQuery = true)
+    Optional<Long> buscarVersao(@Param("usuarioId") Long usuarioId);
+
+    // Incrementa (ou cria, a partir de 0) e devolve a nova versão. A linha fica bloqueada até o fim
+    // da transação, então ninguém mais incrementa entre este comando e o commit.
+    @Transactional
+    @Query(value = "INSERT INTO versao_inventario AS v (usuario_id, versao) VALUES (:usuarioId, 1) "
+            + "ON CONFLICT (usuario_id) DO UPDATE SET versao = v.versao + 1 RETURNING v.versao", nativeQuery = true)
+    Long incrementar(@Param("usuarioId") Long usuarioId);
+
+    // Bloqueia a linha do usuário até o fim da transação sem mudar a versão, criando-a (versão 0) se
+    // ainda não existir; quem for alterar itens espera, e quem estava alterando termina antes
+    @Transactional
+    @Query(value = "INSERT INTO versao_inventario AS v (usuario_id, versao) VALUES (:usuarioId, 0) "
+            + "ON CONFLICT (usuario_id) DO UPDATE SET versao = v.versao RETURNING v.versao", nativeQuery = true)
+    Long bloquear(@Param("usuarioId") Long usuarioId);
+}
@@ -0,0 +1,94 @@
+package com.senac.ControlaStock.infra.config;
+
+import com.senac.ControlaStock.domain.repository.ItemInventarioRepository;
+import com.senac.ControlaStock.domain.repository.TokenRepository;
+import com.senac.ControlaStock.infra.metricas.ContadorHibernate;
+import com.senac.ControlaStock.infra.persistencia.memoria.ResumoEstoqueRepositoryEmMemoria;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.projection.TargetAware;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Dicas para o build AOT (perfis aot e native do pom.xml): o que é acessado por reflexão ou proxy
+ * e que a análise do Spring não enxerga sozinha. Na JVM as dicas não têm efeito.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(AotConfig.Dicas.class)
+public class AotConfig {
+
+    static final String PACOTE_ENTIDADES = "com.senac.ControlaStock.domain.entities";
+    static final String PACOTE_DTOS = "com.senac.ControlaStock.application.dto";
+
+    // Classes internas do java-jwt que o Jackson dele serializa/desserializa (cabeçalho e payload)
+    static final List<String> CLASSES_JAVA_JWT = List.of(
+            "com.auth0.jwt.impl.BasicHeader",
+            "com.auth0.jwt.impl.PayloadImpl",
+            "com.auth0.jwt.impl.JsonNodeClaim",
+            "com.auth0.jwt.impl.ClaimsHolder",
+            "com.auth0.jwt.impl.HeaderClaimsHolder",
+            "com.auth0.jwt.impl.PayloadClaimsHolder",
+            "com.auth0.jwt.impl.ClaimsSerializer",
+            "com.auth0.jwt.impl.HeaderSerializer",
+            "com.auth0.jwt.impl.PayloadSerializer",
+            "com.auth0.jwt.impl.HeaderDeserializer",
+            "com.auth0.jwt.impl.PayloadDeserializer");
+
+    static class Dicas implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Entidades com @Data: o Hibernate lê e grava os campos e instancia pelo construtor vazio
+            for (Class<?> entidade : tiposDoPacote(PACOTE_ENTIDADES, classLoader)) {
+                hints.reflection().registerType(entidade, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            // DTOs: JSON (corpo das requisições, respostas, SSE, importação) e projeções do Spring Data
+            // pelo construtor canônico
+            BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+            binding.registerReflectionHints(hints.reflection(),
+                    tiposDoPacote(PACOTE_DTOS, classLoader).toArray(Class<?>[]::new));
+            // Projeção privada do perfil memoria, criada pelo mesmo caminho das projeções em record
+            hints.reflection().registerType(
+                    TypeReference.of(ResumoEstoqueRepositoryEmMemoria.class.getName() + "$ItemDoResumo"),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Projeções em interface das consultas nativas: o Spring Data cria um proxy JDK para cada linha
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(
+                    TokenRepository.TokenAtivo.class, TargetAware.class));
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(
+                    ItemInventarioRepository.ResultadoBusca.class, TargetAware.class));
+
+            for (String classe : CLASSES_JAVA_JWT) {
+                hints.reflection().registerType(TypeReference.of(classe), MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            // Instanciado pelo Hibernate a partir do nome em application.properties
+            hints.reflection().registerType(ContadorHibernate.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+
+        // Roda no build (process-aot), então a varredura do classpath não pesa na inicialização
+        private static List<Class<?>> tiposDoPacote(String pacote, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider varredura = new ClassPathScanningCandidateComponentProvider(false);
+            varredura.setResourceLoader(new DefaultResourceLoader(classLoader));
+            varredura.addIncludeFilter((leitor, fabrica) -> true);
+            return varredura.findCandidateComponents(pacote).stream()
+                    .map(BeanDefinition::getBeanClassName)
+                    .<Class<?>>map(nome -> ClassUtils.resolveClassName(nome, classLoader))
+                    .toList();
+        }
+    }
+}
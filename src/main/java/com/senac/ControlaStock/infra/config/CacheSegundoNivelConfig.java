@@ -0,0 +1,60 @@
+package com.senac.ControlaStock.infra.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate em regiões JCache do Caffeine, cada uma com tamanho máximo e
+ * TTL próprios (controlastock.hibernate.cache.regioes). Com missing_cache_strategy=fail o Hibernate
+ * não cria por conta própria uma região sem limite: uma região nova precisa ser configurada aqui.
+ * A taxa de acerto de cada região sai nas métricas do Hibernate,
+ * hibernate_second_level_cache_requests_total{region, result}.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!memoria")
+public class CacheSegundoNivelConfig {
+
+    // Região do próprio Hibernate com o momento da última escrita em cada tabela
+    static final String REGIAO_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(CacheSegundoNivelPropriedades propriedades) {
+        CachingProvider provedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Um gerenciador por contexto: com a URI padrão contextos diferentes (testes) dividiriam as regiões
+        CacheManager cacheManager = provedor.getCacheManager(
+                URI.create("controlastock-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        propriedades.regioes().forEach((nome, regiao) -> {
+            CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+            configuracao.setMaximumSize(OptionalLong.of(regiao.tamanhoMaximo()));
+            configuracao.setExpireAfterWrite(OptionalLong.of(regiao.ttl().toNanos()));
+            cacheManager.createCache(nome, configuracao);
+        });
+        // Os timestamps de cada tabela (uma entrada por tabela) decidem se uma consulta em cache ainda
+        // vale; descartados antes da hora, consultas desatualizadas voltariam a valer. Sem limite.
+        if (!propriedades.regioes().containsKey(REGIAO_TIMESTAMPS)) {
+            cacheManager.createCache(REGIAO_TIMESTAMPS, new CaffeineConfiguration<>());
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerHibernate) {
+        return propriedades -> {
+            propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.senac.ControlaStock.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "controlastock.hibernate.cache")
+public record CacheSegundoNivelPropriedades(
+        // Uma entrada por região usada nas entidades (@Cache) e nas consultas (HINT_CACHE_REGION)
+        Map<String, Regiao> regioes
+) {
+
+    public record Regiao(
+            @DefaultValue("10000") long tamanhoMaximo,
+            // Limita por quanto tempo outro nó (ou uma leitura da réplica, ainda atrasada) pode servir
+            // uma entrada desatualizada
+            @DefaultValue("2m") Duration ttl
+    ) {}
+}
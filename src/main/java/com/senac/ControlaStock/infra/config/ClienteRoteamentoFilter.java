@@ -0,0 +1,32 @@
+package com.senac.ControlaStock.infra.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Identifica o cliente de cada requisição para o RoteamentoDataSource manter no primário as
+ * leituras de quem acabou de escrever: o header X-User-Email ou, sem ele, o Authorization.
+ */
+public class ClienteRoteamentoFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String cliente = request.getHeader("X-User-Email");
+        if (cliente == null) {
+            cliente = request.getHeader(HttpHeaders.AUTHORIZATION);
+        }
+        RoteamentoDataSource.definirCliente(cliente);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoteamentoDataSource.limparCliente();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.senac.ControlaStock.infra.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BCrypt executado em um pool próprio e limitado, fora das threads de requisição. Numa rajada de
+ * logins o hash ocupa no máximo as threads do pool; além da fila a operação é recusada na hora com
+ * 503, e as requisições de inventário continuam com CPU e threads do Tomcat disponíveis.
+ * O custo é calibrado na inicialização para a latência alvo (ou fixado por configuração), e
+ * upgradeEncoding faz o Spring Security regravar no login os hashes gerados com custo menor.
+ */
+public class CodificadorSenhas implements PasswordEncoder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CodificadorSenhas.class);
+
+    private final SenhaPropriedades propriedades;
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final Timer tempoEncode;
+    private final Timer tempoMatches;
+    private final Counter recusadas;
+
+    public CodificadorSenhas(SenhaPropriedades propriedades, MeterRegistry meterRegistry) {
+        this.propriedades = propriedades;
+        int custo = propriedades.custo() != null ? propriedades.custo() : calibrarCusto();
+        this.bcrypt = new BCryptPasswordEncoder(custo);
+
+        int threads = propriedades.threads() > 0
+                ? propriedades.threads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(propriedades.capacidadeFila()),
+                Thread.ofPlatform().name("hash-senha-", 1).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("controlastock.senha.custo", () -> custo)
+                .description("Custo (log2 das rodadas) usado nos novos hashes BCrypt")
+                .register(meterRegistry);
+        Gauge.builder("controlastock.senha.fila", executor, e -> e.getQueue().size())
+                .description("Operações de senha esperando uma thread de hash")
+                .register(meterRegistry);
+        this.tempoEncode = Timer.builder("controlastock.senha.hash")
+                .description("Tempo de CPU de cada hash ou verificação de senha")
+                .tag("operacao", "encode")
+                .register(meterRegistry);
+        this.tempoMatches = Timer.builder("controlastock.senha.hash")
+                .description("Tempo de CPU de cada hash ou verificação de senha")
+                .tag("operacao", "matches")
+                .register(meterRegistry);
+        this.recusadas = Counter.builder("controlastock.senha.recusadas")
+                .description("Operações de senha recusadas com 503 por fila cheia ou espera excedida")
+                .register(meterRegistry);
+        log.info("BCrypt com custo {} em {} thread(s), fila de {}", custo, threads, propriedades.capacidadeFila());
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return executar(() -> tempoEncode.record(() -> bcrypt.encode(senha)));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String hash) {
+        return executar(() -> tempoMatches.record(() -> bcrypt.matches(senha, hash)));
+    }
+
+    // Só compara o custo gravado no hash com o atual; não precisa do pool
+    @Override
+    public boolean upgradeEncoding(String hash) {
+        return bcrypt.upgradeEncoding(hash);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T executar(Callable<T> operacao) {
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(operacao);
+        } catch (RejectedExecutionException e) {
+            throw recusar();
+        }
+        try {
+            return resultado.get(propriedades.esperaMaxima().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            throw recusar();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw recusar();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ResponseStatusException recusar() {
+        recusadas.increment();
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Muitas autenticações simultâneas. Tente novamente em instantes.");
+    }
+
+    // Mede o custo mínimo e dobra o tempo estimado a cada ponto de custo, até a latência alvo
+    private int calibrarCusto() {
+        new BCryptPasswordEncoder(4).encode("aquecimento");
+        BCryptPasswordEncoder minimo = new BCryptPasswordEncoder(propriedades.custoMinimo());
+        long nanos = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long inicio = System.nanoTime();
+            minimo.encode("calibracao");
+            nanos = Math.min(nanos, System.nanoTime() - inicio);
+        }
+
+        int custo = propriedades.custoMinimo();
+        long alvo = propriedades.latenciaAlvo().toNanos();
+        while (custo < propriedades.custoMaximo() && nanos * 2 <= alvo) {
+            custo++;
+            nanos *= 2;
+        }
+        log.info("Custo do BCrypt calibrado em {} (~{} ms por hash, alvo {} ms)",
+                custo, TimeUnit.NANOSECONDS.toMillis(nanos), propriedades.latenciaAlvo().toMillis());
+        return custo;
+    }
+}
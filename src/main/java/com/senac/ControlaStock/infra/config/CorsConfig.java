@@ -33,7 +33,7 @@ public class CorsConfig {
         configuration.setAllowCredentials(true);
 
         // Headers que o cliente pode acessar
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "ETag"));
 
         // Tempo de cache para preflight requests
         configuration.setMaxAge(3600L);
@@ -6,6 +6,8 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,6 +20,9 @@ import java.io.IOException;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtFilter.class);
+
     @Autowired
     TokenService tokenService;
 
@@ -45,8 +50,8 @@ public class JwtFilter extends OncePerRequestFilter {
                     UserDetails usuario = userDetailsService.loadUserByUsername(login);
 
                     if (usuario != null) {
-                        System.out.println(" JWT Filter: Usuário encontrado: " + usuario.getUsername());
-                        System.out.println(" JWT Filter: Authorities carregadas: " + usuario.getAuthorities());
+                        log.debug("JWT Filter: usuário {} autenticado com authorities {}",
+                                usuario.getUsername(), usuario.getAuthorities());
 
                         // Configura o objeto de autenticação com  UserDetail
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -59,7 +64,7 @@ public class JwtFilter extends OncePerRequestFilter {
                         SecurityContextHolder.getContext().setAuthentication(authentication);
                     }
                 } catch (Exception e) {
-                    System.err.println(" Erro ao carregar UserDetails no JWT Filter para: " + login + ". Erro: " + e.getMessage());
+                    log.warn("Erro ao carregar UserDetails no JWT Filter para {}: {}", login, e.getMessage());
                 }
             }
         }
@@ -0,0 +1,82 @@
+package com.senac.ControlaStock.infra.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de requisições em andamento no modo de threads virtuais, que não tem o teto do pool de
+ * threads do Tomcat. Sem ele milhares de requisições disputam as conexões do Hikari, que não atende
+ * em ordem de chegada, e sob carga as mais antigas esperam segundos enquanto as novas passam à
+ * frente. O semáforo é justo (fila em ordem de chegada); quem espera além do limite recebe 503.
+ * Conexões SSE ocupam uma vaga só enquanto assinam, não enquanto ficam abertas.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${controlastock.threads.maximo-requisicoes-simultaneas:20}")
+    private int maximoRequisicoes;
+
+    @Value("${controlastock.threads.espera-maxima:10s}")
+    private Duration esperaMaxima;
+
+    private Semaphore vagas;
+
+    @PostConstruct
+    void inicializar() {
+        this.vagas = new Semaphore(maximoRequisicoes, true);
+        Gauge.builder("controlastock.http.requisicoes.aguardando", vagas, Semaphore::getQueueLength)
+                .description("Requisições esperando uma vaga no modo de threads virtuais")
+                .register(meterRegistry);
+    }
+
+    // Health e métricas continuam respondendo com o servidor saturado
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/actuator") || uri.equals("/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean obteve;
+        try {
+            obteve = vagas.tryAcquire(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obteve = false;
+        }
+        if (!obteve) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor sobrecarregado. Tente novamente.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            vagas.release();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.senac.ControlaStock.infra.config;
+
+import com.senac.ControlaStock.application.ports.CepServicePort;
+import com.senac.ControlaStock.application.ports.ItemInventarioServicePorts;
+import com.senac.ControlaStock.application.ports.TokenServicePorts;
+import com.senac.ControlaStock.infra.metricas.TemporizadorPortas;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import java.util.List;
+
+@Configuration
+public class MetricasConfig {
+
+    // Advisor de infraestrutura: aplicado pelo mesmo auto-proxy do @Transactional. O método é
+    // estático e o registry é resolvido só na primeira chamada para não antecipar a criação dos beans.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static TemporizadorPortas temporizadorPortas(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new TemporizadorPortas(
+                List.of(ItemInventarioServicePorts.class, TokenServicePorts.class, CepServicePort.class),
+                meterRegistry);
+    }
+}
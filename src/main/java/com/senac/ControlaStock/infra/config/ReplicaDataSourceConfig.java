@@ -0,0 +1,63 @@
+package com.senac.ControlaStock.infra.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Com controlastock.replica.url definido, o DataSource da aplicação passa a ser o roteamento entre
+ * dois pools: o primário (spring.datasource.*) e a réplica. Localmente a réplica pode ser outra
+ * instância do PostgreSQL em streaming ou o mesmo banco, só com um pool separado.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "controlastock.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    // As migrações do Flyway vão direto para o primário, sem passar pelo roteamento
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource dataSourceReplica(DataSourceProperties primario, ReplicaPropriedades replica) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replica.url());
+        dataSource.setUsername(replica.usuario() != null ? replica.usuario() : primario.determineUsername());
+        dataSource.setPassword(replica.senha() != null ? replica.senha() : primario.determinePassword());
+        dataSource.setDriverClassName(primario.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replica.tamanhoPool());
+        dataSource.setConnectionTimeout(replica.timeoutConexao().toMillis());
+        dataSource.setReadOnly(true);
+        // A aplicação sobe mesmo com a réplica fora do ar; as leituras caem para o primário
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource dataSourcePrimario, HikariDataSource dataSourceReplica,
+                                 ReplicaPropriedades propriedades, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new RoteamentoDataSource(dataSourcePrimario, dataSourceReplica, propriedades, meterRegistry));
+    }
+
+    @Bean
+    public ClienteRoteamentoFilter clienteRoteamentoFilter() {
+        return new ClienteRoteamentoFilter();
+    }
+}
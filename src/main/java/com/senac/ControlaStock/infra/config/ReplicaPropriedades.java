@@ -0,0 +1,22 @@
+package com.senac.ControlaStock.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "controlastock.replica")
+public record ReplicaPropriedades(
+        // Sem url não há roteamento: tudo vai para spring.datasource
+        String url,
+        // Usuário e senha da réplica; sem eles valem os de spring.datasource
+        String usuario,
+        String senha,
+        @DefaultValue("10") int tamanhoPool,
+        // Curto: com a réplica fora do ar a leitura cai para o primário em vez de esperar
+        @DefaultValue("1s") Duration timeoutConexao,
+        // Por quanto tempo depois de uma escrita as leituras do mesmo cliente ficam no primário
+        @DefaultValue("5s") Duration janelaLeituraPropria,
+        // Depois de uma falha, por quanto tempo a réplica não é tentada
+        @DefaultValue("30s") Duration esperaAposFalha
+) {}
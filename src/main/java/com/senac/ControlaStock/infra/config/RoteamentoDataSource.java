@@ -0,0 +1,133 @@
+package com.senac.ControlaStock.infra.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senac.ControlaStock.ControlaStockApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Envia para a réplica as transações somente leitura abertas pela camada de aplicação
+ * (@Transactional(readOnly = true) nos services) e todo o resto para o primário. As transações
+ * somente leitura que o próprio Spring Data abre em cada chamada de repositório, e as consultas
+ * sem transação, continuam no primário: elas aparecem logo depois de escritas (login, cadastro,
+ * validação de token) e não toleram o atraso da replicação.
+ * Depois de uma escrita, as leituras do mesmo cliente ficam no primário pela janela configurada;
+ * se a réplica não entrega uma conexão, as leituras vão para o primário até a próxima tentativa.
+ * Precisa estar atrás de um LazyConnectionDataSourceProxy: a conexão só pode ser escolhida no
+ * primeiro comando, quando a transação já está marcada como somente leitura.
+ */
+public class RoteamentoDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(RoteamentoDataSource.class);
+
+    private static final String CAMADA_APLICACAO = ControlaStockApplication.class.getPackageName() + ".application.";
+
+    // Cliente da requisição atual (definido por ClienteRoteamentoFilter)
+    private static final ThreadLocal<String> CLIENTE = new ThreadLocal<>();
+
+    private final DataSource primario;
+    private final DataSource replica;
+    private final ReplicaPropriedades propriedades;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Boolean> escritasRecentes;
+    private volatile long replicaIndisponivelAte;
+
+    public RoteamentoDataSource(DataSource primario, DataSource replica, ReplicaPropriedades propriedades,
+                                MeterRegistry meterRegistry) {
+        this.primario = primario;
+        this.replica = replica;
+        this.propriedades = propriedades;
+        this.meterRegistry = meterRegistry;
+        this.escritasRecentes = Caffeine.newBuilder()
+                .expireAfterWrite(propriedades.janelaLeituraPropria())
+                .build();
+        this.replicaIndisponivelAte = System.nanoTime();
+    }
+
+    public static void definirCliente(String cliente) {
+        CLIENTE.set(cliente);
+    }
+
+    public static void limparCliente() {
+        CLIENTE.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String motivo = motivoParaPrimario();
+        if (motivo != null) {
+            return conectar(primario, "primario", motivo);
+        }
+        try {
+            return conectar(replica, "replica", "leitura");
+        } catch (SQLException | RuntimeException e) {
+            replicaIndisponivelAte = System.nanoTime() + propriedades.esperaAposFalha().toNanos();
+            log.warn("Réplica indisponível; leituras vão para o primário pelos próximos {} s: {}",
+                    propriedades.esperaAposFalha().toSeconds(), e.getMessage());
+            return conectar(primario, "primario", "replica-indisponivel");
+        }
+    }
+
+    // Credenciais explícitas são as do primário (a réplica pode ter outro usuário); o pool decide se
+    // aceita conexões com credenciais diferentes das configuradas
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection conexao = primario.getConnection(username, password);
+        meterRegistry.counter("controlastock.datasource.conexoes", "destino", "primario", "motivo", "credenciais").increment();
+        return conexao;
+    }
+
+    // Null quando a conexão pode vir da réplica
+    private String motivoParaPrimario() {
+        String cliente = CLIENTE.get();
+        // Consultas declaradas nos repositórios rodam sem transação; escritas sempre têm uma
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return "sem-transacao";
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (cliente != null) {
+                registrarEscrita(cliente);
+            }
+            return "escrita";
+        }
+        String transacao = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transacao == null || !transacao.startsWith(CAMADA_APLICACAO)) {
+            return "repositorio";
+        }
+        if (cliente != null && escritasRecentes.getIfPresent(cliente) != null) {
+            return "leitura-propria";
+        }
+        if (System.nanoTime() - replicaIndisponivelAte < 0) {
+            return "replica-indisponivel";
+        }
+        return null;
+    }
+
+    // A janela conta a partir do fim da transação, quando a escrita começa a ser replicada
+    private void registrarEscrita(String cliente) {
+        escritasRecentes.put(cliente, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    escritasRecentes.put(cliente, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private Connection conectar(DataSource dataSource, String destino, String motivo) throws SQLException {
+        Connection conexao = dataSource.getConnection();
+        meterRegistry.counter("controlastock.datasource.conexoes", "destino", destino, "motivo", motivo).increment();
+        return conexao;
+    }
+}
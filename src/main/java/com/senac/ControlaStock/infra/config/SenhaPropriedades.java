@@ -0,0 +1,20 @@
+package com.senac.ControlaStock.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "controlastock.senha")
+public record SenhaPropriedades(
+        // Custo fixo do BCrypt; sem ele o custo é calibrado na inicialização pela latência alvo
+        Integer custo,
+        @DefaultValue("250ms") Duration latenciaAlvo,
+        @DefaultValue("10") int custoMinimo,
+        @DefaultValue("14") int custoMaximo,
+        // Threads dedicadas ao hash; 0 = metade dos processadores (no mínimo uma)
+        @DefaultValue("0") int threads,
+        @DefaultValue("50") int capacidadeFila,
+        // Quanto uma operação pode esperar na fila e executar antes de virar 503
+        @DefaultValue("5s") Duration esperaMaxima
+) {}
@@ -0,0 +1,24 @@
+package com.senac.ControlaStock.infra.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senac.ControlaStock.infra.sse.CanalSse;
+import com.senac.ControlaStock.infra.sse.SsePropriedades;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SseConfig {
+
+    @Bean
+    public CanalSse canalAlertasEstoque(SsePropriedades propriedades, ObjectMapper objectMapper,
+                                        MeterRegistry meterRegistry) {
+        return new CanalSse("alertas-estoque", propriedades, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public CanalSse canalAlteracoesInventario(SsePropriedades propriedades, ObjectMapper objectMapper,
+                                              MeterRegistry meterRegistry) {
+        return new CanalSse("alteracoes-inventario", propriedades, objectMapper, meterRegistry);
+    }
+}
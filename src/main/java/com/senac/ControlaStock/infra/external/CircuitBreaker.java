@@ -0,0 +1,50 @@
+package com.senac.ControlaStock.infra.external;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker simples por falhas consecutivas: depois de N falhas seguidas o circuito abre
+ * e as chamadas são recusadas até passar o tempo configurado; então uma única chamada de teste
+ * é liberada (meio-aberto) e o resultado dela decide se o circuito fecha ou abre de novo.
+ */
+class CircuitBreaker {
+
+    enum Estado { FECHADO, ABERTO, MEIO_ABERTO }
+
+    private final int falhasParaAbrir;
+    private final long tempoAbertoNanos;
+
+    private Estado estado = Estado.FECHADO;
+    private int falhasConsecutivas = 0;
+    private long abertoEm = 0;
+
+    CircuitBreaker(int falhasParaAbrir, Duration tempoAberto) {
+        this.falhasParaAbrir = falhasParaAbrir;
+        this.tempoAbertoNanos = tempoAberto.toNanos();
+    }
+
+    synchronized boolean permiteChamada() {
+        if (estado == Estado.ABERTO && System.nanoTime() - abertoEm >= tempoAbertoNanos) {
+            estado = Estado.MEIO_ABERTO;
+            return true;
+        }
+        return estado == Estado.FECHADO;
+    }
+
+    synchronized void registrarSucesso() {
+        estado = Estado.FECHADO;
+        falhasConsecutivas = 0;
+    }
+
+    synchronized void registrarFalha() {
+        falhasConsecutivas++;
+        if (estado == Estado.MEIO_ABERTO || falhasConsecutivas >= falhasParaAbrir) {
+            estado = Estado.ABERTO;
+            abertoEm = System.nanoTime();
+        }
+    }
+
+    synchronized Estado getEstado() {
+        return estado;
+    }
+}
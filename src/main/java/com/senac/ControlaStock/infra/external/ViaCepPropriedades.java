@@ -0,0 +1,22 @@
+package com.senac.ControlaStock.infra.external;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "controlastock.viacep")
+public record ViaCepPropriedades(
+        @DefaultValue("https://viacep.com.br/ws/") String url,
+        @DefaultValue("2s") Duration timeoutConexao,
+        @DefaultValue("3s") Duration timeoutResposta,
+        @DefaultValue("50000") long tamanhoMaximoCache,
+        // Por quanto tempo um endereço encontrado é considerado atual
+        @DefaultValue("1d") Duration ttl,
+        // Por quanto tempo um CEP inexistente fica em cache
+        @DefaultValue("10m") Duration ttlNegativo,
+        // Até quando uma entrada vencida ainda pode ser servida se o ViaCEP estiver fora do ar
+        @DefaultValue("7d") Duration validadeObsoleta,
+        @DefaultValue("5") int falhasParaAbrirCircuito,
+        @DefaultValue("30s") Duration tempoCircuitoAberto
+) {}
@@ -1,60 +1,165 @@
 package com.senac.ControlaStock.infra.external;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.senac.ControlaStock.application.dto.endereco.EnderecoResponseDto;
 import com.senac.ControlaStock.application.ports.CepServicePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Adapter do ViaCEP. As consultas são assíncronas (não prendem a thread do Tomcat), com timeouts
+ * de conexão e de resposta, e passam por um cache LRU que também guarda CEPs inexistentes.
+ * Consultas simultâneas ao mesmo CEP compartilham uma única chamada ao ViaCEP, e quando o serviço
+ * está fora do ar (circuito aberto ou falha) uma entrada vencida do cache é servida se existir.
+ */
 @Service
-public class ViaCepService implements CepServicePort {
+public class ViaCepService implements CepServicePort, MeterBinder {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private record EntradaCep(EnderecoResponseDto endereco, Instant obtidaEm) {
+        boolean encontrado() {
+            return endereco != null;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ViaCepPropriedades propriedades;
+    private final HttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache<String, EntradaCep> cache;
+    private final ConcurrentMap<String, CompletableFuture<EntradaCep>> consultasEmAndamento = new ConcurrentHashMap<>();
+
+    public ViaCepService(ObjectMapper objectMapper, ViaCepPropriedades propriedades) {
+        this.objectMapper = objectMapper;
+        this.propriedades = propriedades;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(propriedades.timeoutConexao())
+                .build();
+        this.circuitBreaker = new CircuitBreaker(propriedades.falhasParaAbrirCircuito(), propriedades.tempoCircuitoAberto());
+        // O cache guarda as entradas pelo prazo de validade obsoleta; a "frescura" é conferida na leitura
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(propriedades.tamanhoMaximoCache())
+                .expireAfterWrite(propriedades.validadeObsoleta())
+                .recordStats()
+                .build();
+    }
 
     @Override
     public EnderecoResponseDto buscarEnderecoPorCep(String cep) {
         try {
-            String cepLimpo = cep.replaceAll("[^0-9]", "");
-
-            if (cepLimpo.length() != 8) {
-                throw new IllegalArgumentException("CEP deve ter 8 dígitos");
+            return buscarEnderecoPorCepAsync(cep).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
             }
+            throw e;
+        }
+    }
 
-            String urlEndereco = "https://viacep.com.br/ws/" + cepLimpo + "/json/";
-            URL url = new URL(urlEndereco);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
+    @Override
+    public CompletableFuture<EnderecoResponseDto> buscarEnderecoPorCepAsync(String cep) {
+        String cepLimpo = cep.replaceAll("[^0-9]", "");
 
-            BufferedReader in = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream())
-            );
+        if (cepLimpo.length() != 8) {
+            throw new IllegalArgumentException("CEP deve ter 8 dígitos");
+        }
 
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = in.readLine()) != null) {
-                response.append(line);
-            }
+        EntradaCep emCache = cache.getIfPresent(cepLimpo);
+        if (emCache != null && estaAtual(emCache)) {
+            return CompletableFuture.completedFuture(paraResposta(emCache));
+        }
 
-            in.close();
-            conn.disconnect();
+        if (!circuitBreaker.permiteChamada()) {
+            return CompletableFuture.completedFuture(servirObsoleto(emCache));
+        }
 
-            EnderecoResponseDto endereco = objectMapper.readValue(
-                    response.toString(),
-                    EnderecoResponseDto.class
-            );
+        return consultarCoalescido(cepLimpo)
+                .handle((entrada, erro) -> erro == null ? paraResposta(entrada) : servirObsoleto(emCache));
+    }
 
-            if (endereco.erro() != null) {
-                throw new RuntimeException("CEP não encontrado");
+    public CacheStats estatisticasCache() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "viacep");
+    }
+
+    private CompletableFuture<EntradaCep> consultarCoalescido(String cep) {
+        CompletableFuture<EntradaCep> nova = new CompletableFuture<>();
+        CompletableFuture<EntradaCep> existente = consultasEmAndamento.putIfAbsent(cep, nova);
+        if (existente != null) {
+            return existente;
+        }
+
+        consultarViaCep(cep).whenComplete((entrada, erro) -> {
+            consultasEmAndamento.remove(cep, nova);
+            if (erro != null) {
+                circuitBreaker.registrarFalha();
+                nova.completeExceptionally(erro);
+            } else {
+                circuitBreaker.registrarSucesso();
+                cache.put(cep, entrada);
+                nova.complete(entrada);
             }
+        });
+        return nova;
+    }
 
-            return endereco;
+    private CompletableFuture<EntradaCep> consultarViaCep(String cep) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(propriedades.url() + cep + "/json/"))
+                .timeout(propriedades.timeoutResposta())
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("ViaCEP respondeu com status " + response.statusCode());
+                    }
+                    try {
+                        EnderecoResponseDto endereco = objectMapper.readValue(response.body(), EnderecoResponseDto.class);
+                        return new EntradaCep(endereco.erro() != null ? null : endereco, Instant.now());
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Resposta inválida do ViaCEP: " + e.getMessage(), e);
+                    }
+                });
+    }
+
+    private boolean estaAtual(EntradaCep entrada) {
+        var validade = entrada.encontrado() ? propriedades.ttl() : propriedades.ttlNegativo();
+        return entrada.obtidaEm().plus(validade).isAfter(Instant.now());
+    }
+
+    private EnderecoResponseDto servirObsoleto(EntradaCep entrada) {
+        if (entrada == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Serviço de consulta de CEP indisponível");
+        }
+        return paraResposta(entrada);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao consultar CEP: " + e.getMessage());
+    private EnderecoResponseDto paraResposta(EntradaCep entrada) {
+        if (!entrada.encontrado()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "CEP não encontrado");
         }
+        return entrada.endereco();
     }
-}
\ No newline at end of file
+}
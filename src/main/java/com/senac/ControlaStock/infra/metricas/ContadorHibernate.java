@@ -0,0 +1,45 @@
+package com.senac.ControlaStock.infra.metricas;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Conta, por thread, os comandos SQL preparados e as entidades carregadas pelo Hibernate.
+ * Registrado como StatementInspector e Interceptor da SessionFactory (application.properties);
+ * o Hibernate cria as instâncias, por isso os contadores são estáticos. O filtro
+ * MetricasRequisicaoFilter zera no início de cada requisição e publica os totais no fim.
+ */
+public class ContadorHibernate implements StatementInspector, Interceptor {
+
+    private static final ThreadLocal<long[]> CONTADORES = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static final int CONSULTAS = 0;
+    private static final int ENTIDADES_CARREGADAS = 1;
+
+    @Override
+    public String inspect(String sql) {
+        CONTADORES.get()[CONSULTAS]++;
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        CONTADORES.get()[ENTIDADES_CARREGADAS]++;
+        return false;
+    }
+
+    public static void zerar() {
+        long[] contadores = CONTADORES.get();
+        contadores[CONSULTAS] = 0;
+        contadores[ENTIDADES_CARREGADAS] = 0;
+    }
+
+    public static long consultas() {
+        return CONTADORES.get()[CONSULTAS];
+    }
+
+    public static long entidadesCarregadas() {
+        return CONTADORES.get()[ENTIDADES_CARREGADAS];
+    }
+}
@@ -0,0 +1,53 @@
+package com.senac.ControlaStock.infra.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Publica quantos comandos SQL e quantas entidades cada requisição gerou, por rota, para que
+ * regressões do tipo N+1 apareçam no Prometheus (controlastock_http_consultas_sql_*).
+ */
+@Component
+public class MetricasRequisicaoFilter extends OncePerRequestFilter {
+
+    private static final double[] LIMITES = {1, 2, 3, 5, 10, 20, 50, 100, 500};
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorHibernate.zerar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = rota != null ? rota.toString() : "UNKNOWN";
+
+            resumo("controlastock.http.consultas.sql", "Comandos SQL preparados por requisição", request, uri)
+                    .record(ContadorHibernate.consultas());
+            resumo("controlastock.http.entidades.carregadas", "Entidades carregadas pelo Hibernate por requisição", request, uri)
+                    .record(ContadorHibernate.entidadesCarregadas());
+        }
+    }
+
+    private DistributionSummary resumo(String nome, String descricao, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(nome)
+                .description(descricao)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .serviceLevelObjectives(LIMITES)
+                .register(meterRegistry);
+    }
+}
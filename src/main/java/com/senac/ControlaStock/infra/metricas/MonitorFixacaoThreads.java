@@ -0,0 +1,113 @@
+package com.senac.ControlaStock.infra.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import com.senac.ControlaStock.ControlaStockApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta virtual threads fixadas na carrier: uma virtual thread que bloqueia dentro de um
+ * synchronized (ou de uma chamada nativa) não libera a carrier, e com poucas carriers isso para as
+ * outras requisições. Escuta o evento JFR jdk.VirtualThreadPinned no próprio processo, mede em
+ * controlastock.threads.virtuais.fixadas por local do bloqueio e registra a pilha de cada local uma
+ * vez no log. Só existe no modo de threads virtuais (spring.threads.virtual.enabled=true).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class MonitorFixacaoThreads implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorFixacaoThreads.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final String PACOTE_APLICACAO = ControlaStockApplication.class.getPackageName() + ".";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Fixações mais curtas que isto são ignoradas (o padrão do JFR para o evento é 20 ms)
+    @Value("${controlastock.threads.limiar-fixacao:20ms}")
+    private Duration limiar;
+
+    private final Set<String> locaisRegistrados = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream gravacao;
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limiar).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        gravacao = stream;
+        log.info("Monitorando virtual threads fixadas na carrier por mais de {} ms", limiar.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = gravacao;
+        gravacao = null;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return gravacao != null;
+    }
+
+    private void registrar(RecordedEvent evento) {
+        List<RecordedFrame> quadros = evento.getStackTrace() == null ? List.of() : evento.getStackTrace().getFrames();
+        String local = local(quadros);
+        Timer.builder("controlastock.threads.virtuais.fixadas")
+                .description("Tempo em que virtual threads bloquearam sem liberar a carrier")
+                .tag("local", local)
+                .register(meterRegistry)
+                .record(evento.getDuration());
+        if (locaisRegistrados.add(local)) {
+            log.warn("Virtual thread fixada na carrier por {} ms em {}:\n{}",
+                    evento.getDuration().toMillis(), local, pilha(evento.getStackTrace()));
+        }
+    }
+
+    // O bloqueio em si costuma estar no driver ou em outra biblioteca; o local é o primeiro método
+    // da aplicação na pilha (quem chamou), ou o primeiro fora do JDK quando a aplicação não aparece
+    private static String local(List<RecordedFrame> quadros) {
+        List<String> metodos = quadros.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(q -> q.getMethod().getType().getName() + "." + q.getMethod().getName())
+                .toList();
+        return metodos.stream()
+                .filter(nome -> nome.startsWith(PACOTE_APLICACAO) && !nome.contains("$$"))
+                .findFirst()
+                .or(() -> metodos.stream()
+                        .filter(nome -> !nome.startsWith("java.") && !nome.startsWith("jdk.") && !nome.startsWith("sun."))
+                        .findFirst())
+                .orElse("jdk");
+    }
+
+    private static String pilha(RecordedStackTrace pilha) {
+        if (pilha == null) {
+            return "\t(sem pilha)";
+        }
+        return pilha.getFrames().stream()
+                .limit(40)
+                .map(q -> "\tat " + q.getMethod().getType().getName() + "." + q.getMethod().getName() + ":" + q.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.senac.ControlaStock.infra.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Advisor que mede cada método das portas de serviço informadas (controlastock.servico, com tags
+ * porta/metodo/excecao e histograma de percentis). Métodos que devolvem CompletionStage são
+ * medidos até a conclusão do future, não até o retorno da chamada.
+ */
+public class TemporizadorPortas extends StaticMethodMatcherPointcutAdvisor {
+
+    static final String NOME_METRICA = "controlastock.servico";
+
+    private final List<Class<?>> portas;
+
+    public TemporizadorPortas(List<Class<?>> portas, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.portas = portas;
+        // Fica por fora do @Transactional: o tempo medido inclui o commit
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+        setAdvice(new Interceptador(meterRegistry));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return portaDeclarante(method, targetClass) != null;
+    }
+
+    private Class<?> portaDeclarante(Method method, Class<?> targetClass) {
+        for (Class<?> porta : portas) {
+            if (porta.isAssignableFrom(targetClass)) {
+                try {
+                    porta.getMethod(method.getName(), method.getParameterTypes());
+                    return porta;
+                } catch (NoSuchMethodException e) {
+                    // método da implementação que não faz parte da porta
+                }
+            }
+        }
+        return null;
+    }
+
+    private final class Interceptador implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        private Interceptador(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return invocation.proceed();
+            }
+
+            Timer.Sample sample = Timer.start(registry);
+            Object resultado;
+            try {
+                resultado = invocation.proceed();
+            } catch (Throwable e) {
+                registrar(registry, sample, invocation, e);
+                throw e;
+            }
+
+            if (resultado instanceof CompletionStage<?> future) {
+                return future.whenComplete((valor, erro) -> registrar(registry, sample, invocation,
+                        erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro));
+            }
+            registrar(registry, sample, invocation, null);
+            return resultado;
+        }
+
+        private void registrar(MeterRegistry registry, Timer.Sample sample, MethodInvocation invocation, Throwable erro) {
+            Class<?> alvo = invocation.getThis() != null ? invocation.getThis().getClass() : invocation.getMethod().getDeclaringClass();
+            Class<?> porta = portaDeclarante(invocation.getMethod(), alvo);
+
+            sample.stop(Timer.builder(NOME_METRICA)
+                    .description("Tempo das chamadas às portas de serviço")
+                    .tag("porta", porta != null ? porta.getSimpleName() : alvo.getSimpleName())
+                    .tag("metodo", invocation.getMethod().getName())
+                    .tag("excecao", erro == null ? "none" : erro.getClass().getSimpleName())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+}
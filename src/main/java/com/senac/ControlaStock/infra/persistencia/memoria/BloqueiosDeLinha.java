@@ -0,0 +1,76 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bloqueios de linha dos repositórios em memória, no lugar dos row locks do PostgreSQL: quem altera
+ * uma linha fica com o bloqueio até o fim da transação, então alterações concorrentes da mesma linha
+ * são serializadas na ordem de commit. As chaves são distribuídas em um número fixo de travas; várias
+ * linhas são bloqueadas sempre em ordem de trava, para que lotes concorrentes não entrem em deadlock.
+ */
+final class BloqueiosDeLinha {
+
+    private static final int TRAVAS = 1024;
+
+    // Equivalente ao lock_timeout: em vez de esperar para sempre, a operação falha
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 10;
+
+    private final ReentrantLock[] travas = new ReentrantLock[TRAVAS];
+
+    BloqueiosDeLinha() {
+        for (int i = 0; i < TRAVAS; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    <R> R executar(Object chave, Supplier<R> operacao) {
+        return executar(List.of(chave), operacao);
+    }
+
+    /**
+     * Executa a operação com as linhas bloqueadas. Dentro de uma transação os bloqueios só são
+     * liberados no fim dela; fora, logo depois da operação.
+     */
+    <R> R executar(Collection<?> chaves, Supplier<R> operacao) {
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (Object chave : chaves) {
+            indices.add(Math.floorMod(chave.hashCode(), TRAVAS));
+        }
+
+        List<ReentrantLock> obtidas = new ArrayList<>(indices.size());
+        Runnable liberar = () -> obtidas.forEach(ReentrantLock::unlock);
+        try {
+            for (int indice : indices) {
+                ReentrantLock trava = travas[indice];
+                if (!trava.tryLock(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS)) {
+                    throw new CannotAcquireLockException("Tempo esgotado esperando o bloqueio de uma linha");
+                }
+                obtidas.add(trava);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            liberar.run();
+            throw new CannotAcquireLockException("Interrompido esperando o bloqueio de uma linha", e);
+        } catch (RuntimeException e) {
+            liberar.run();
+            throw e;
+        }
+
+        boolean emTransacao = GerenciadorTransacoesEmMemoria.aoTerminar(liberar);
+        try {
+            return operacao.get();
+        } finally {
+            if (!emTransacao) {
+                liberar.run();
+            }
+        }
+    }
+}
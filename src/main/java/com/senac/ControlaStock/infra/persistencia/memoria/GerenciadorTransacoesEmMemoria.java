@@ -0,0 +1,142 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Transações dos repositórios em memória. Não há recurso por trás: cada transação só guarda o que
+ * os repositórios registram nela, ou seja, como desfazer cada alteração (executado no rollback, da
+ * última para a primeira), a gravação das entidades alteradas fora do save (no commit, como o flush
+ * do Hibernate) e a liberação dos bloqueios de linha (no fim, com commit ou rollback).
+ * Fora de uma transação cada chamada de repositório vale por si, como o autocommit do banco.
+ */
+public class GerenciadorTransacoesEmMemoria extends AbstractPlatformTransactionManager {
+
+    private static final Object CHAVE = GerenciadorTransacoesEmMemoria.class;
+
+    private static final class Transacao {
+        private final Deque<Runnable> desfazer = new ArrayDeque<>();
+        private final List<Runnable> noCommit = new ArrayList<>();
+        private final List<Runnable> aoTerminar = new ArrayList<>();
+        private boolean somenteRollback;
+    }
+
+    private static final class ObjetoTransacao implements SmartTransactionObject {
+
+        private Transacao transacao;
+
+        private ObjetoTransacao(Transacao transacao) {
+            this.transacao = transacao;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return transacao != null && transacao.somenteRollback;
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+
+    static boolean emTransacao() {
+        return atual() != null;
+    }
+
+    static void aoDesfazer(Runnable acao) {
+        Transacao transacao = atual();
+        if (transacao != null) {
+            transacao.desfazer.push(acao);
+        }
+    }
+
+    static void noCommit(Runnable acao) {
+        Transacao transacao = atual();
+        if (transacao != null) {
+            transacao.noCommit.add(acao);
+        }
+    }
+
+    // False fora de uma transação: quem chamou executa a ação na hora
+    static boolean aoTerminar(Runnable acao) {
+        Transacao transacao = atual();
+        if (transacao == null) {
+            return false;
+        }
+        transacao.aoTerminar.add(acao);
+        return true;
+    }
+
+    private static Transacao atual() {
+        return (Transacao) TransactionSynchronizationManager.getResource(CHAVE);
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        return new ObjetoTransacao(atual());
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((ObjetoTransacao) transaction).transacao != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Transacao transacao = new Transacao();
+        ((ObjetoTransacao) transaction).transacao = transacao;
+        TransactionSynchronizationManager.bindResource(CHAVE, transacao);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((ObjetoTransacao) transaction).transacao = null;
+        return TransactionSynchronizationManager.unbindResource(CHAVE);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(CHAVE, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        // Por índice: uma gravação pode registrar outras
+        List<Runnable> noCommit = transacao(status).noCommit;
+        for (int i = 0; i < noCommit.size(); i++) {
+            noCommit.get(i).run();
+        }
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        Deque<Runnable> desfazer = transacao(status).desfazer;
+        while (!desfazer.isEmpty()) {
+            desfazer.pop().run();
+        }
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        transacao(status).somenteRollback = true;
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        Transacao transacao = ((ObjetoTransacao) transaction).transacao;
+        TransactionSynchronizationManager.unbindResourceIfPossible(CHAVE);
+        transacao.aoTerminar.forEach(Runnable::run);
+    }
+
+    private static Transacao transacao(DefaultTransactionStatus status) {
+        return ((ObjetoTransacao) status.getTransaction()).transacao;
+    }
+}
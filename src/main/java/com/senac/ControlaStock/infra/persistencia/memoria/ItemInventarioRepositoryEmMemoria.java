@@ -0,0 +1,412 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.repository.ItemInventarioRepository;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Itens em memória, com um índice por usuário para cada ordenação da paginação por cursor (os
+ * mesmos (usuario_id, coluna, id) do banco). As linhas guardadas nunca são alteradas, só
+ * substituídas, então podem ser removidas dos índices ordenados pelos valores que tinham.
+ */
+@Repository
+@Profile("memoria")
+public class ItemInventarioRepositoryEmMemoria extends RepositorioEmMemoria<ItemInventario, Long>
+        implements ItemInventarioRepository {
+
+    private static final Comparator<ItemInventario> POR_NOME =
+            Comparator.comparing(ItemInventario::getNome).thenComparing(ItemInventario::getId);
+    private static final Comparator<ItemInventario> POR_LOCALIZACAO =
+            Comparator.comparing(ItemInventario::getLocalizacao).thenComparing(ItemInventario::getId);
+
+    // Mesmo limiar padrão do operador <% (pg_trgm.word_similarity_threshold)
+    private static final double LIMIAR_SIMILARIDADE = 0.6;
+
+    private static final class ItensDoUsuario {
+        private final ConcurrentSkipListMap<Long, ItemInventario> porId = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListSet<ItemInventario> porNome = new ConcurrentSkipListSet<>(POR_NOME);
+        private final ConcurrentSkipListSet<ItemInventario> porLocalizacao = new ConcurrentSkipListSet<>(POR_LOCALIZACAO);
+    }
+
+    private record Resultado(Long id, String nome, String descricao, Integer quantidade, String localizacao,
+                             Double relevancia, Double distancia) implements ResultadoBusca {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getNome() {
+            return nome;
+        }
+
+        @Override
+        public String getDescricao() {
+            return descricao;
+        }
+
+        @Override
+        public Integer getQuantidade() {
+            return quantidade;
+        }
+
+        @Override
+        public String getLocalizacao() {
+            return localizacao;
+        }
+
+        @Override
+        public Double getRelevancia() {
+            return relevancia;
+        }
+
+        @Override
+        public Double getDistancia() {
+            return distancia;
+        }
+    }
+
+    private final Map<Long, ItensDoUsuario> porUsuario = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Function<ItemInventario, ?>> projecoes = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final BloqueiosDeLinha bloqueios = new BloqueiosDeLinha();
+
+    // Sem isolamento, uma alteração de item fica visível antes do commit. Por isso toda escrita
+    // bloqueia antes a versão do inventário do dono (que a transação bloquearia logo depois, ao
+    // incrementá-la): a reconstrução do resumo, que bloqueia a versão, não lê um item alterado por
+    // uma transação que ainda vai somar o delta dele no resumo.
+    @Autowired
+    private VersaoInventarioRepositoryEmMemoria versaoInventarioRepository;
+
+    public ItemInventarioRepositoryEmMemoria() {
+        super(ItemInventario.class);
+    }
+
+    @Override
+    protected Long chave(ItemInventario item) {
+        return item.getId();
+    }
+
+    @Override
+    protected ItemInventario copiar(ItemInventario item) {
+        return new ItemInventario(item.getId(), item.getNome(), item.getDescricao(), item.getQuantidade(),
+                item.getLocalizacao(), item.getEstoqueMinimo(), item.getUsuario(), item.getUsuarioId(), item.getVersao());
+    }
+
+    @Override
+    protected void gerarChave(ItemInventario item) {
+        item.setId(sequencia.incrementAndGet());
+    }
+
+    @Override
+    protected void verificarRestricoes(ItemInventario item) {
+        if (item.getNome() == null || item.getQuantidade() == null || item.getLocalizacao() == null
+                || item.getUsuario() == null || item.getUsuario().getId() == null) {
+            throw new DataIntegrityViolationException("Item sem nome, quantidade, localização ou usuário");
+        }
+    }
+
+    @Override
+    protected void indexar(ItemInventario anterior, ItemInventario atual) {
+        if (anterior != null) {
+            ItensDoUsuario itens = porUsuario.get(usuarioId(anterior));
+            if (itens != null) {
+                itens.porId.remove(anterior.getId(), anterior);
+                itens.porNome.remove(anterior);
+                itens.porLocalizacao.remove(anterior);
+            }
+        }
+        if (atual != null) {
+            ItensDoUsuario itens = porUsuario.computeIfAbsent(usuarioId(atual), id -> new ItensDoUsuario());
+            itens.porId.put(atual.getId(), atual);
+            itens.porNome.add(atual);
+            itens.porLocalizacao.add(atual);
+        }
+    }
+
+    // Como o UPDATE ... WHERE versao = ? do Hibernate: sem alteração a versão não muda
+    @Override
+    protected void versionar(ItemInventario atual, ItemInventario alterado) {
+        if (atual == null) {
+            if (alterado.getVersao() == null) {
+                alterado.setVersao(0L);
+            }
+            return;
+        }
+        if (!Objects.equals(atual.getVersao(), alterado.getVersao())) {
+            throw new ObjectOptimisticLockingFailureException(ItemInventario.class, alterado.getId());
+        }
+        if (!alterado.equals(atual)) {
+            alterado.setVersao(atual.getVersao() + 1);
+        }
+    }
+
+    @Override
+    protected <R> R escrever(Long id, Supplier<R> operacao) {
+        ItemInventario item = linhas.get(id);
+        if (item != null) {
+            versaoInventarioRepository.travar(usuarioId(item));
+        }
+        return bloqueios.executar(id, operacao);
+    }
+
+    @Override
+    public <S extends ItemInventario> S save(S item) {
+        if (item.getId() == null && item.getUsuario() != null) {
+            versaoInventarioRepository.travar(usuarioId(item));
+        }
+        return super.save(item);
+    }
+
+    @Override
+    public <T> Optional<T> findByIdAndUsuarioId(Long id, Long usuarioId, Class<T> tipo) {
+        ItemInventario item = linhas.get(id);
+        return item != null && usuarioId.equals(usuarioId(item)) ? Optional.of(projetar(item, tipo)) : Optional.empty();
+    }
+
+    @Override
+    public boolean existsByIdAndUsuarioId(Long id, Long usuarioId) {
+        ItemInventario item = linhas.get(id);
+        return item != null && usuarioId.equals(usuarioId(item));
+    }
+
+    @Override
+    public <T> List<T> findByUsuarioIdOrderById(Long usuarioId, Class<T> tipo) {
+        return listar(itens(usuarioId).porId.values().stream(), Limit.unlimited(), tipo);
+    }
+
+    @Override
+    public <T> List<T> buscarPaginaPorId(Long usuarioId, Long id, Limit limite, Class<T> tipo) {
+        return listar(itens(usuarioId).porId.tailMap(id, false).values().stream(), limite, tipo);
+    }
+
+    @Override
+    public <T> List<T> buscarPrimeiraPaginaPorNome(Long usuarioId, Limit limite, Class<T> tipo) {
+        return listar(itens(usuarioId).porNome.stream(), limite, tipo);
+    }
+
+    @Override
+    public <T> List<T> buscarPaginaPorNome(Long usuarioId, String nome, Long id, Limit limite, Class<T> tipo) {
+        ItemInventario posicao = new ItemInventario();
+        posicao.setNome(nome);
+        posicao.setId(id);
+        return listar(itens(usuarioId).porNome.tailSet(posicao, false).stream(), limite, tipo);
+    }
+
+    @Override
+    public <T> List<T> buscarPrimeiraPaginaPorLocalizacao(Long usuarioId, Limit limite, Class<T> tipo) {
+        return listar(itens(usuarioId).porLocalizacao.stream(), limite, tipo);
+    }
+
+    @Override
+    public <T> List<T> buscarPaginaPorLocalizacao(Long usuarioId, String localizacao, Long id, Limit limite, Class<T> tipo) {
+        ItemInventario posicao = new ItemInventario();
+        posicao.setLocalizacao(localizacao);
+        posicao.setId(id);
+        return listar(itens(usuarioId).porLocalizacao.tailSet(posicao, false).stream(), limite, tipo);
+    }
+
+    @Override
+    public <T> List<T> buscarPaginaAbaixoDoMinimo(Long usuarioId, Long id, int limite, Class<T> tipo) {
+        Stream<ItemInventario> abaixoDoMinimo = itens(usuarioId).porId.tailMap(id, false).values().stream()
+                .filter(i -> i.getEstoqueMinimo() != null && i.getQuantidade() < i.getEstoqueMinimo());
+        return listar(abaixoDoMinimo, Limit.of(limite), tipo);
+    }
+
+    @Override
+    public Optional<ItemInventario> deleteByIdAndUsuarioId(Long id, Long usuarioId) {
+        return escrever(id, () -> {
+            if (!existsByIdAndUsuarioId(id, usuarioId)) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(remover(id)).map(this::copiar);
+        });
+    }
+
+    @Override
+    public Optional<ItemInventario> adicionarQuantidade(Long id, Long usuarioId, Integer quantidade) {
+        return escrever(id, () -> {
+            ItemInventario item = linhas.get(id);
+            if (item == null || item.getQuantidade() > Integer.MAX_VALUE - quantidade) {
+                return Optional.empty();
+            }
+            return alterarQuantidade(id, usuarioId, quantidade);
+        });
+    }
+
+    @Override
+    public Optional<ItemInventario> removerQuantidade(Long id, Long usuarioId, Integer quantidade) {
+        return escrever(id, () -> {
+            ItemInventario item = linhas.get(id);
+            if (item == null || item.getQuantidade() < quantidade) {
+                return Optional.empty();
+            }
+            return alterarQuantidade(id, usuarioId, -quantidade);
+        });
+    }
+
+    // Chamado com a linha bloqueada
+    private Optional<ItemInventario> alterarQuantidade(Long id, Long usuarioId, int delta) {
+        ItemInventario item = linhas.get(id);
+        if (item == null || !usuarioId.equals(usuarioId(item))) {
+            return Optional.empty();
+        }
+        ItemInventario alterado = copiar(item);
+        alterado.setQuantidade(Math.addExact(item.getQuantidade(), delta));
+        alterado.setVersao(item.getVersao() + 1);
+        return Optional.of(copiar(gravar(alterado)));
+    }
+
+    @Override
+    public List<ItemInventario> buscarParaMovimentacao(Collection<Long> ids, Long usuarioId) {
+        TreeSet<Long> ordenados = new TreeSet<>(ids);
+        versaoInventarioRepository.travar(usuarioId);
+        return bloqueios.executar(ordenados, () -> {
+            List<ItemInventario> itens = new ArrayList<>(ordenados.size());
+            for (Long id : ordenados) {
+                ItemInventario item = linhas.get(id);
+                if (item != null && usuarioId.equals(usuarioId(item))) {
+                    itens.add(entregar(item));
+                }
+            }
+            return itens;
+        });
+    }
+
+    /**
+     * Aproximação da busca do pg_trgm: a relevância é a fração dos trigramas do termo que aparecem
+     * no documento (nome, descrição e localização), comparada com o mesmo limiar do operador <%.
+     */
+    @Override
+    public List<ResultadoBusca> buscarPorTexto(Long usuarioId, String termo, double distancia, Long id, int limite) {
+        Set<String> trigramasTermo = trigramas(termo);
+        if (trigramasTermo.isEmpty()) {
+            return List.of();
+        }
+        List<Resultado> resultados = new ArrayList<>();
+        for (ItemInventario item : itens(usuarioId).porId.values()) {
+            String documento = (item.getNome() + " " + Objects.toString(item.getDescricao(), "") + " "
+                    + item.getLocalizacao()).toLowerCase();
+            Set<String> trigramasDocumento = trigramas(documento);
+            long comuns = trigramasTermo.stream().filter(trigramasDocumento::contains).count();
+            double relevancia = (double) comuns / trigramasTermo.size();
+            double distanciaItem = 1 - relevancia;
+            boolean depoisDoCursor = distanciaItem > distancia || (distanciaItem == distancia && item.getId() > id);
+            if (relevancia >= LIMIAR_SIMILARIDADE && depoisDoCursor) {
+                resultados.add(new Resultado(item.getId(), item.getNome(), item.getDescricao(), item.getQuantidade(),
+                        item.getLocalizacao(), relevancia, distanciaItem));
+            }
+        }
+        return resultados.stream()
+                .sorted(Comparator.comparing(Resultado::distancia).thenComparing(Resultado::id))
+                .limit(limite)
+                .<ResultadoBusca>map(r -> r)
+                .toList();
+    }
+
+    // Como o pg_trgm: cada palavra com dois espaços antes e um depois
+    private static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (String palavra : texto.split("[^\\p{L}\\p{N}]+")) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            String preenchida = "  " + palavra + " ";
+            for (int i = 0; i + 3 <= preenchida.length(); i++) {
+                trigramas.add(preenchida.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+
+    @Override
+    public void salvarEmLote(List<ItemInventario> itens) {
+        saveAll(itens);
+    }
+
+    private ItensDoUsuario itens(Long usuarioId) {
+        ItensDoUsuario itens = porUsuario.get(usuarioId);
+        return itens == null ? new ItensDoUsuario() : itens;
+    }
+
+    private <T> List<T> listar(Stream<ItemInventario> itens, Limit limite, Class<T> tipo) {
+        return itens.limit(limite.isLimited() ? limite.max() : Long.MAX_VALUE)
+                .map(item -> projetar(item, tipo))
+                .toList();
+    }
+
+    /**
+     * Projeções como as do Spring Data: a própria entidade (cópia gerenciada) ou um record com
+     * propriedades de mesmo nome, montado pelo construtor canônico.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T projetar(ItemInventario item, Class<T> tipo) {
+        if (tipo == ItemInventario.class) {
+            return (T) entregar(item);
+        }
+        return (T) projecoes.computeIfAbsent(tipo, ItemInventarioRepositoryEmMemoria::criarProjecao).apply(item);
+    }
+
+    private static Function<ItemInventario, ?> criarProjecao(Class<?> tipo) {
+        if (!tipo.isRecord()) {
+            throw new IllegalArgumentException("Projeção não suportada pelo repositório em memória: " + tipo.getName());
+        }
+        RecordComponent[] componentes = tipo.getRecordComponents();
+        Method[] leitores = new Method[componentes.length];
+        Class<?>[] tipos = new Class<?>[componentes.length];
+        for (int i = 0; i < componentes.length; i++) {
+            PropertyDescriptor propriedade = BeanUtils.getPropertyDescriptor(ItemInventario.class, componentes[i].getName());
+            if (propriedade == null || propriedade.getReadMethod() == null) {
+                throw new IllegalArgumentException("ItemInventario não tem a propriedade " + componentes[i].getName());
+            }
+            leitores[i] = propriedade.getReadMethod();
+            tipos[i] = componentes[i].getType();
+        }
+        Constructor<?> construtor;
+        try {
+            construtor = ReflectionUtils.accessibleConstructor(tipo, tipos);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Record sem construtor canônico: " + tipo.getName(), e);
+        }
+        return item -> {
+            Object[] valores = new Object[leitores.length];
+            for (int i = 0; i < leitores.length; i++) {
+                valores[i] = ReflectionUtils.invokeMethod(leitores[i], item);
+            }
+            return BeanUtils.instantiateClass(construtor, valores);
+        };
+    }
+
+    private static Long usuarioId(ItemInventario item) {
+        return item.getUsuario().getId();
+    }
+}
@@ -0,0 +1,116 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import com.senac.ControlaStock.domain.entities.MovimentacaoEstoque;
+import com.senac.ControlaStock.domain.repository.MovimentacaoEstoqueRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Histórico de movimentações em memória, indexado por item das mais recentes para as mais antigas
+ * (o índice item_id, ocorrido_em, id do banco).
+ */
+@Repository
+@Profile("memoria")
+public class MovimentacaoEstoqueRepositoryEmMemoria extends RepositorioEmMemoria<MovimentacaoEstoque, Long>
+        implements MovimentacaoEstoqueRepository {
+
+    private static final Comparator<MovimentacaoEstoque> MAIS_RECENTES_PRIMEIRO =
+            Comparator.comparing(MovimentacaoEstoque::getOcorridoEm)
+                    .thenComparing(MovimentacaoEstoque::getId)
+                    .reversed();
+
+    private final Map<Long, NavigableSet<MovimentacaoEstoque>> porItem = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    public MovimentacaoEstoqueRepositoryEmMemoria() {
+        super(MovimentacaoEstoque.class);
+    }
+
+    @Override
+    protected Long chave(MovimentacaoEstoque movimentacao) {
+        return movimentacao.getId();
+    }
+
+    @Override
+    protected MovimentacaoEstoque copiar(MovimentacaoEstoque m) {
+        return new MovimentacaoEstoque(m.getId(), m.getItemId(), m.getUsuarioId(), m.getTipo(), m.getDelta(),
+                m.getQuantidadeResultante(), m.getOcorridoEm());
+    }
+
+    @Override
+    protected void gerarChave(MovimentacaoEstoque movimentacao) {
+        movimentacao.setId(sequencia.incrementAndGet());
+    }
+
+    @Override
+    protected void verificarRestricoes(MovimentacaoEstoque m) {
+        if (m.getItemId() == null || m.getUsuarioId() == null || m.getTipo() == null || m.getDelta() == null
+                || m.getQuantidadeResultante() == null || m.getOcorridoEm() == null) {
+            throw new DataIntegrityViolationException("Movimentação com campos obrigatórios nulos");
+        }
+    }
+
+    @Override
+    protected void indexar(MovimentacaoEstoque anterior, MovimentacaoEstoque atual) {
+        if (anterior != null) {
+            NavigableSet<MovimentacaoEstoque> doItem = porItem.get(anterior.getItemId());
+            if (doItem != null) {
+                doItem.remove(anterior);
+            }
+        }
+        if (atual != null) {
+            porItem.computeIfAbsent(atual.getItemId(), id -> new ConcurrentSkipListSet<>(MAIS_RECENTES_PRIMEIRO)).add(atual);
+        }
+    }
+
+    @Override
+    public boolean existsByItemIdAndUsuarioId(Long itemId, Long usuarioId) {
+        return historico(itemId).stream().anyMatch(m -> usuarioId.equals(m.getUsuarioId()));
+    }
+
+    @Override
+    public List<MovimentacaoEstoque> buscarPrimeiraPaginaHistorico(Long itemId, Long usuarioId, Limit limite) {
+        return listar(historico(itemId), usuarioId, limite);
+    }
+
+    @Override
+    public List<MovimentacaoEstoque> buscarPaginaHistorico(Long itemId, Long usuarioId, Instant ocorridoEm, Long id, Limit limite) {
+        return listar(historico(itemId).tailSet(posicao(ocorridoEm, id), false), usuarioId, limite);
+    }
+
+    @Override
+    public List<MovimentacaoEstoque> buscarUltimaAte(Long itemId, Long usuarioId, Instant instante, Limit limite) {
+        return listar(historico(itemId).tailSet(posicao(instante, Long.MAX_VALUE), true), usuarioId, limite);
+    }
+
+    private NavigableSet<MovimentacaoEstoque> historico(Long itemId) {
+        NavigableSet<MovimentacaoEstoque> doItem = porItem.get(itemId);
+        return doItem == null ? new ConcurrentSkipListSet<>(MAIS_RECENTES_PRIMEIRO) : doItem;
+    }
+
+    private List<MovimentacaoEstoque> listar(NavigableSet<MovimentacaoEstoque> movimentacoes, Long usuarioId, Limit limite) {
+        return movimentacoes.stream()
+                .filter(m -> usuarioId.equals(m.getUsuarioId()))
+                .limit(limite.isLimited() ? limite.max() : Long.MAX_VALUE)
+                .map(this::entregar)
+                .toList();
+    }
+
+    private static MovimentacaoEstoque posicao(Instant ocorridoEm, Long id) {
+        MovimentacaoEstoque posicao = new MovimentacaoEstoque();
+        posicao.setOcorridoEm(ocorridoEm);
+        posicao.setId(id);
+        return posicao;
+    }
+}
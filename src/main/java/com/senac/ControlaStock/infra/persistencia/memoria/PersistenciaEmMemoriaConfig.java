@@ -0,0 +1,21 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Perfil "memoria" (--spring.profiles.active=memoria): os repositórios deste pacote substituem os
+ * do Spring Data JPA e a aplicação sobe sem PostgreSQL nem Hibernate (as auto-configurações ficam
+ * excluídas em application-memoria.properties). Os dados duram enquanto a aplicação estiver no ar.
+ */
+@Configuration
+@Profile("memoria")
+public class PersistenciaEmMemoriaConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new GerenciadorTransacoesEmMemoria();
+    }
+}
@@ -0,0 +1,205 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Base dos repositórios do perfil "memoria": as linhas ficam em um ConcurrentHashMap pela chave
+ * primária e são sempre cópias, então uma entidade recebida por quem chamou só chega à "tabela"
+ * pelo save, ou no commit, se foi carregada em uma transação de escrita e alterada (como o dirty
+ * checking do Hibernate). Dentro de uma transação cada alteração registra como se desfazer e o
+ * rollback restaura as linhas. Não há isolamento: uma alteração aparece para as outras threads
+ * antes do commit. Os repositórios do domínio estendem só o ListCrudRepository (mais flush e
+ * deleteAllByIdInBatch, declarados onde são usados), então não há métodos de Example, Sort ou
+ * Pageable a implementar.
+ */
+public abstract class RepositorioEmMemoria<T, ID> implements ListCrudRepository<T, ID> {
+
+    protected final Map<ID, T> linhas = new ConcurrentHashMap<>();
+
+    private final Class<T> tipo;
+
+    protected RepositorioEmMemoria(Class<T> tipo) {
+        this.tipo = tipo;
+    }
+
+    protected abstract ID chave(T entidade);
+
+    protected abstract T copiar(T entidade);
+
+    // Chaves geradas (sequência ou identity) são atribuídas à própria entidade, como no persist
+    protected void gerarChave(T entidade) {
+        throw new IllegalArgumentException(tipo.getSimpleName() + " sem chave");
+    }
+
+    // Restrições de unicidade, verificadas antes de gravar
+    protected void verificarRestricoes(T nova) {
+    }
+
+    // Mantém os índices secundários; anterior ou atual é nulo na inclusão e na remoção
+    protected void indexar(T anterior, T atual) {
+    }
+
+    // Controle otimista (@Version), chamado com a linha bloqueada antes de gravar a entidade: confere
+    // a versão lida contra a atual (nula na inclusão) e passa a entidade para a próxima versão
+    protected void versionar(T atual, T alterada) {
+    }
+
+    // Alterações de linhas existentes; quem precisa de bloqueio de linha sobrescreve
+    protected <R> R escrever(ID id, Supplier<R> operacao) {
+        return operacao.get();
+    }
+
+    protected T gravar(T nova) {
+        verificarRestricoes(nova);
+        ID id = chave(nova);
+        T anterior = linhas.put(id, nova);
+        indexar(anterior, nova);
+        GerenciadorTransacoesEmMemoria.aoDesfazer(() -> restaurar(id, nova, anterior));
+        return nova;
+    }
+
+    protected T remover(ID id) {
+        T anterior = linhas.remove(id);
+        if (anterior != null) {
+            indexar(anterior, null);
+            GerenciadorTransacoesEmMemoria.aoDesfazer(() -> restaurar(id, null, anterior));
+        }
+        return anterior;
+    }
+
+    // Só desfaz se a linha ainda é a que a transação deixou
+    private void restaurar(ID id, T atual, T anterior) {
+        boolean restaurado;
+        if (atual == null) {
+            restaurado = linhas.putIfAbsent(id, anterior) == null;
+        } else if (anterior == null) {
+            restaurado = linhas.remove(id, atual);
+        } else {
+            restaurado = linhas.replace(id, atual, anterior);
+        }
+        if (restaurado) {
+            indexar(atual, anterior);
+        }
+    }
+
+    /**
+     * Cópia da linha para quem chamou. Em uma transação de escrita a cópia fica "gerenciada": se for
+     * alterada, é gravada no commit.
+     */
+    protected T entregar(T linha) {
+        T copia = copiar(linha);
+        if (GerenciadorTransacoesEmMemoria.emTransacao() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            T carregada = copiar(linha);
+            GerenciadorTransacoesEmMemoria.noCommit(() -> {
+                // Alterada depois de carregada e ainda não gravada pelo save (nem removida)
+                T atual = linhas.get(chave(copia));
+                if (atual != null && !copia.equals(carregada) && !copia.equals(atual)) {
+                    escrever(chave(copia), () -> {
+                        versionar(linhas.get(chave(copia)), copia);
+                        return gravar(copiar(copia));
+                    });
+                }
+            });
+        }
+        return copia;
+    }
+
+    @Override
+    public <S extends T> S save(S entidade) {
+        ID id = chave(entidade);
+        if (id == null) {
+            gerarChave(entidade);
+            versionar(null, entidade);
+            gravar(copiar(entidade));
+        } else {
+            escrever(id, () -> {
+                versionar(linhas.get(id), entidade);
+                return gravar(copiar(entidade));
+            });
+        }
+        return entidade;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entidades) {
+        List<S> salvas = new ArrayList<>();
+        for (S entidade : entidades) {
+            salvas.add(save(entidade));
+        }
+        return salvas;
+    }
+
+    // Não há o que sincronizar: cada alteração já está nas linhas
+    public void flush() {
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        T linha = linhas.get(id);
+        return linha == null ? Optional.empty() : Optional.of(entregar(linha));
+    }
+
+    @Override
+    public boolean existsById(ID id) {
+        return linhas.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return linhas.values().stream().map(this::entregar).toList();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<ID> ids) {
+        List<T> encontradas = new ArrayList<>();
+        for (ID id : ids) {
+            T linha = linhas.get(id);
+            if (linha != null) {
+                encontradas.add(entregar(linha));
+            }
+        }
+        return encontradas;
+    }
+
+    @Override
+    public long count() {
+        return linhas.size();
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        escrever(id, () -> remover(id));
+    }
+
+    @Override
+    public void delete(T entidade) {
+        deleteById(chave(entidade));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends ID> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entidades) {
+        entidades.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAllById(List.copyOf(linhas.keySet()));
+    }
+
+    public void deleteAllByIdInBatch(Iterable<ID> ids) {
+        deleteAllById(ids);
+    }
+}
@@ -0,0 +1,123 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.entities.ResumoEstoqueLocalizacao;
+import com.senac.ControlaStock.domain.repository.ItemInventarioRepository;
+import com.senac.ControlaStock.domain.repository.ResumoEstoqueRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Resumo por localização em memória. Os deltas são somados atomicamente na linha e desfeitos no
+ * rollback subtraindo o mesmo delta, então não precisam de bloqueio até o fim da transação.
+ */
+@Repository
+@Profile("memoria")
+public class ResumoEstoqueRepositoryEmMemoria
+        extends RepositorioEmMemoria<ResumoEstoqueLocalizacao, ResumoEstoqueLocalizacao.Chave>
+        implements ResumoEstoqueRepository {
+
+    private record ItemDoResumo(String localizacao, Integer quantidade) {
+    }
+
+    private final Map<Long, NavigableSet<String>> localizacoesPorUsuario = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ItemInventarioRepository itemInventarioRepository;
+
+    public ResumoEstoqueRepositoryEmMemoria() {
+        super(ResumoEstoqueLocalizacao.class);
+    }
+
+    @Override
+    protected ResumoEstoqueLocalizacao.Chave chave(ResumoEstoqueLocalizacao resumo) {
+        return new ResumoEstoqueLocalizacao.Chave(resumo.getUsuarioId(), resumo.getLocalizacao());
+    }
+
+    @Override
+    protected ResumoEstoqueLocalizacao copiar(ResumoEstoqueLocalizacao r) {
+        return new ResumoEstoqueLocalizacao(r.getUsuarioId(), r.getLocalizacao(), r.getTotalItens(),
+                r.getQuantidadeTotal(), r.getItensSemEstoque());
+    }
+
+    @Override
+    protected void indexar(ResumoEstoqueLocalizacao anterior, ResumoEstoqueLocalizacao atual) {
+        if (anterior != null && atual == null) {
+            NavigableSet<String> localizacoes = localizacoesPorUsuario.get(anterior.getUsuarioId());
+            if (localizacoes != null) {
+                localizacoes.remove(anterior.getLocalizacao());
+            }
+        }
+        if (atual != null) {
+            localizacoesPorUsuario.computeIfAbsent(atual.getUsuarioId(), id -> new ConcurrentSkipListSet<>())
+                    .add(atual.getLocalizacao());
+        }
+    }
+
+    @Override
+    public List<ResumoEstoqueLocalizacao> findByUsuarioIdAndTotalItensGreaterThanOrderByLocalizacao(Long usuarioId, Long totalItens) {
+        NavigableSet<String> localizacoes = localizacoesPorUsuario.get(usuarioId);
+        if (localizacoes == null) {
+            return List.of();
+        }
+        return localizacoes.stream()
+                .map(localizacao -> linhas.get(new ResumoEstoqueLocalizacao.Chave(usuarioId, localizacao)))
+                .filter(r -> r != null && r.getTotalItens() > totalItens)
+                .map(this::entregar)
+                .toList();
+    }
+
+    @Override
+    public void aplicarDelta(Long usuarioId, String localizacao, long itens, long quantidade, long semEstoque) {
+        somar(usuarioId, localizacao, itens, quantidade, semEstoque);
+        GerenciadorTransacoesEmMemoria.aoDesfazer(() -> somar(usuarioId, localizacao, -itens, -quantidade, -semEstoque));
+    }
+
+    private void somar(Long usuarioId, String localizacao, long itens, long quantidade, long semEstoque) {
+        ResumoEstoqueLocalizacao somado = linhas.compute(new ResumoEstoqueLocalizacao.Chave(usuarioId, localizacao),
+                (chave, atual) -> atual == null
+                        ? new ResumoEstoqueLocalizacao(usuarioId, localizacao, itens, quantidade, semEstoque)
+                        : new ResumoEstoqueLocalizacao(usuarioId, localizacao, atual.getTotalItens() + itens,
+                                atual.getQuantidadeTotal() + quantidade, atual.getItensSemEstoque() + semEstoque));
+        indexar(null, somado);
+    }
+
+    @Override
+    public void apagarDoUsuario(Long usuarioId) {
+        NavigableSet<String> localizacoes = localizacoesPorUsuario.get(usuarioId);
+        if (localizacoes != null) {
+            for (String localizacao : List.copyOf(localizacoes)) {
+                remover(new ResumoEstoqueLocalizacao.Chave(usuarioId, localizacao));
+            }
+        }
+    }
+
+    @Override
+    public void recalcularDoUsuario(Long usuarioId) {
+        for (ItemDoResumo item : itemInventarioRepository.findByUsuarioIdOrderById(usuarioId, ItemDoResumo.class)) {
+            aplicarDelta(usuarioId, item.localizacao(), 1, item.quantidade(), item.quantidade() == 0 ? 1 : 0);
+        }
+    }
+
+    @Override
+    public void apagarTodos() {
+        for (ResumoEstoqueLocalizacao.Chave chave : List.copyOf(linhas.keySet())) {
+            remover(chave);
+        }
+    }
+
+    @Override
+    public void recalcularTodos() {
+        for (ItemInventario item : itemInventarioRepository.findAll()) {
+            aplicarDelta(item.getUsuario().getId(), item.getLocalizacao(), 1, item.getQuantidade(),
+                    item.getQuantidade() == 0 ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import com.senac.ControlaStock.domain.entities.Token;
+import com.senac.ControlaStock.domain.repository.TokenRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tokens em memória, com os mesmos índices da tabela: hash (único), tokens de cada usuário por id
+ * e todos por data de expiração, para a limpeza dos expirados.
+ */
+@Repository
+@Profile("memoria")
+public class TokenRepositoryEmMemoria extends RepositorioEmMemoria<Token, Long> implements TokenRepository {
+
+    private static final Comparator<Token> POR_EXPIRACAO =
+            Comparator.comparing(Token::getExpiraEm).thenComparing(Token::getId);
+
+    private record Ativo(Long id, String hash) implements TokenAtivo {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getHash() {
+            return hash;
+        }
+    }
+
+    private final Map<String, Long> porHash = new ConcurrentHashMap<>();
+    private final Map<Long, ConcurrentSkipListMap<Long, Token>> porUsuario = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Token> porExpiracao = new ConcurrentSkipListSet<>(POR_EXPIRACAO);
+    private final AtomicLong sequencia = new AtomicLong();
+
+    public TokenRepositoryEmMemoria() {
+        super(Token.class);
+    }
+
+    @Override
+    protected Long chave(Token token) {
+        return token.getId();
+    }
+
+    @Override
+    protected Token copiar(Token token) {
+        return new Token(token.getId(), token.getHash(), token.getExpiraEm(), token.getUsuario());
+    }
+
+    @Override
+    protected void gerarChave(Token token) {
+        token.setId(sequencia.incrementAndGet());
+    }
+
+    @Override
+    protected void verificarRestricoes(Token token) {
+        if (token.getHash() == null || token.getExpiraEm() == null
+                || token.getUsuario() == null || token.getUsuario().getId() == null) {
+            throw new DataIntegrityViolationException("Token sem hash, expiração ou usuário");
+        }
+        Long comHash = porHash.get(token.getHash());
+        if (comHash != null && !comHash.equals(token.getId())) {
+            throw new DataIntegrityViolationException("Hash de token duplicado (uk_tokens_hash)");
+        }
+    }
+
+    @Override
+    protected void indexar(Token anterior, Token atual) {
+        if (anterior != null) {
+            porHash.remove(anterior.getHash(), anterior.getId());
+            porExpiracao.remove(anterior);
+            Map<Long, Token> doUsuario = porUsuario.get(anterior.getUsuario().getId());
+            if (doUsuario != null) {
+                doUsuario.remove(anterior.getId(), anterior);
+            }
+        }
+        if (atual != null) {
+            porHash.put(atual.getHash(), atual.getId());
+            porExpiracao.add(atual);
+            porUsuario.computeIfAbsent(atual.getUsuario().getId(), id -> new ConcurrentSkipListMap<>())
+                    .put(atual.getId(), atual);
+        }
+    }
+
+    @Override
+    public boolean existsByHash(String hash) {
+        return porHash.containsKey(hash);
+    }
+
+    @Override
+    public void apagarPorHash(String hash) {
+        Long id = porHash.get(hash);
+        if (id != null) {
+            deleteById(id);
+        }
+    }
+
+    @Override
+    public List<TokenAtivo> buscarAtivosDoUsuario(Long usuarioId, Instant agora) {
+        ConcurrentSkipListMap<Long, Token> doUsuario = porUsuario.get(usuarioId);
+        if (doUsuario == null) {
+            return List.of();
+        }
+        return doUsuario.descendingMap().values().stream()
+                .filter(t -> t.getExpiraEm().isAfter(agora))
+                .<TokenAtivo>map(t -> new Ativo(t.getId(), t.getHash()))
+                .toList();
+    }
+
+    @Override
+    public List<Long> buscarIdsExpirados(Instant agora, Limit limite) {
+        Token ate = new Token(Long.MAX_VALUE, null, agora, null);
+        return porExpiracao.headSet(ate, true).stream()
+                .limit(limite.isLimited() ? limite.max() : Long.MAX_VALUE)
+                .map(Token::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.repository.UsuarioRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Usuários em memória, com índices únicos por email e CNPJ (as mesmas restrições da tabela).
+ */
+@Repository
+@Profile("memoria")
+public class UsuarioRepositoryEmMemoria extends RepositorioEmMemoria<Usuario, Long> implements UsuarioRepository {
+
+    private final Map<String, Long> porEmail = new ConcurrentHashMap<>();
+    private final Map<String, Long> porCnpj = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    public UsuarioRepositoryEmMemoria() {
+        super(Usuario.class);
+    }
+
+    @Override
+    protected Long chave(Usuario usuario) {
+        return usuario.getId();
+    }
+
+    @Override
+    protected Usuario copiar(Usuario usuario) {
+        return new Usuario(usuario.getId(), usuario.getNome(), usuario.getCnpj(), usuario.getCep(),
+                usuario.getEmail(), usuario.getSenha(), usuario.getRole());
+    }
+
+    @Override
+    protected void gerarChave(Usuario usuario) {
+        usuario.setId(sequencia.incrementAndGet());
+    }
+
+    @Override
+    protected void verificarRestricoes(Usuario usuario) {
+        if (usuario.getNome() == null || usuario.getCnpj() == null || usuario.getEmail() == null
+                || usuario.getSenha() == null || usuario.getRole() == null) {
+            throw new DataIntegrityViolationException("Usuário sem nome, CNPJ, email, senha ou perfil");
+        }
+        Long comEmail = porEmail.get(usuario.getEmail());
+        Long comCnpj = porCnpj.get(usuario.getCnpj());
+        if ((comEmail != null && !comEmail.equals(usuario.getId())) || (comCnpj != null && !comCnpj.equals(usuario.getId()))) {
+            throw new DataIntegrityViolationException("Email ou CNPJ já cadastrado para outro usuário");
+        }
+    }
+
+    @Override
+    protected void indexar(Usuario anterior, Usuario atual) {
+        if (anterior != null) {
+            porEmail.remove(anterior.getEmail(), anterior.getId());
+            porCnpj.remove(anterior.getCnpj(), anterior.getId());
+        }
+        if (atual != null) {
+            porEmail.put(atual.getEmail(), atual.getId());
+            porCnpj.put(atual.getCnpj(), atual.getId());
+        }
+    }
+
+    @Override
+    public Optional<Usuario> findByEmail(String email) {
+        return buscarPor(porEmail.get(email));
+    }
+
+    @Override
+    public Optional<Usuario> findByCnpj(String cnpj) {
+        return buscarPor(porCnpj.get(cnpj));
+    }
+
+    @Override
+    public void atualizarSenha(String email, String senha) {
+        Long id = porEmail.get(email);
+        if (id == null) {
+            return;
+        }
+        escrever(id, () -> {
+            Usuario usuario = linhas.get(id);
+            if (usuario == null) {
+                return null;
+            }
+            Usuario alterado = copiar(usuario);
+            alterado.setSenha(senha);
+            return gravar(alterado);
+        });
+    }
+
+    private Optional<Usuario> buscarPor(Long id) {
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    // Sem cache de segundo nível neste perfil
+    @Override
+    public void descartarCache() {
+    }
+}
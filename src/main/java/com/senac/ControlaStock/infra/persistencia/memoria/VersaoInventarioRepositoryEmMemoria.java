@@ -0,0 +1,71 @@
+package com.senac.ControlaStock.infra.persistencia.memoria;
+
+import com.senac.ControlaStock.domain.entities.VersaoInventario;
+import com.senac.ControlaStock.domain.repository.VersaoInventarioRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Versões do inventário em memória. Como no banco, quem incrementa fica com a linha do usuário
+ * bloqueada até o fim da transação: as alterações de um mesmo usuário fazem commit na ordem das
+ * versões, e o rollback (If-Match recusado) devolve a versão anterior sem que outra tenha passado.
+ */
+@Repository
+@Profile("memoria")
+public class VersaoInventarioRepositoryEmMemoria extends RepositorioEmMemoria<VersaoInventario, Long>
+        implements VersaoInventarioRepository {
+
+    private final BloqueiosDeLinha bloqueios = new BloqueiosDeLinha();
+
+    public VersaoInventarioRepositoryEmMemoria() {
+        super(VersaoInventario.class);
+    }
+
+    @Override
+    protected Long chave(VersaoInventario versao) {
+        return versao.getUsuarioId();
+    }
+
+    @Override
+    protected VersaoInventario copiar(VersaoInventario versao) {
+        return new VersaoInventario(versao.getUsuarioId(), versao.getVersao());
+    }
+
+    @Override
+    protected <R> R escrever(Long id, Supplier<R> operacao) {
+        return bloqueios.executar(id, operacao);
+    }
+
+    // Só o bloqueio da linha, até o fim da transação; usado antes de alterar itens do usuário
+    void travar(Long usuarioId) {
+        bloqueios.executar(usuarioId, () -> null);
+    }
+
+    @Override
+    public Optional<Long> buscarVersao(Long usuarioId) {
+        return Optional.ofNullable(linhas.get(usuarioId)).map(VersaoInventario::getVersao);
+    }
+
+    @Override
+    public Long incrementar(Long usuarioId) {
+        return escrever(usuarioId, () -> {
+            VersaoInventario atual = linhas.get(usuarioId);
+            long versao = atual == null ? 1 : atual.getVersao() + 1;
+            gravar(new VersaoInventario(usuarioId, versao));
+            return versao;
+        });
+    }
+
+    @Override
+    public Long bloquear(Long usuarioId) {
+        return escrever(usuarioId, () -> {
+            VersaoInventario atual = linhas.get(usuarioId);
+            long versao = atual == null ? 0 : atual.getVersao();
+            gravar(new VersaoInventario(usuarioId, versao));
+            return versao;
+        });
+    }
+}
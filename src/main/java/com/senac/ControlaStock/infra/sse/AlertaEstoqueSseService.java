@@ -0,0 +1,43 @@
+package com.senac.ControlaStock.infra.sse;
+
+import com.senac.ControlaStock.application.dto.alerta.AlertaEstoqueDto;
+import com.senac.ControlaStock.application.dto.alerta.TipoAlertaEstoque;
+import com.senac.ControlaStock.application.ports.AlertaEstoqueServicePorts;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.events.EstoqueMinimoCruzadoEvent;
+import com.senac.ControlaStock.infra.sse.CanalSse.EventoSse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Adapter SSE dos alertas de estoque mínimo: entrega aos clientes conectados as transições
+ * detectadas pelo ItemInventarioService. O estado completo (itens abaixo do mínimo agora) vem da
+ * listagem, que o cliente consulta ao conectar ou reconectar.
+ */
+@Service
+public class AlertaEstoqueSseService implements AlertaEstoqueServicePorts {
+
+    @Autowired
+    private CanalSse canalAlertasEstoque;
+
+    @Override
+    public SseEmitter assinar(Usuario usuarioLogado) {
+        return canalAlertasEstoque.assinar(usuarioLogado.getId());
+    }
+
+    // Só depois do commit, para nunca avisar sobre uma alteração desfeita por rollback
+    @TransactionalEventListener(fallbackExecution = true)
+    public void notificar(EstoqueMinimoCruzadoEvent evento) {
+        AlertaEstoqueDto alerta = new AlertaEstoqueDto(
+                evento.abaixoDoMinimo() ? TipoAlertaEstoque.ESTOQUE_BAIXO : TipoAlertaEstoque.ESTOQUE_NORMALIZADO,
+                evento.itemId(),
+                evento.nome(),
+                evento.localizacao(),
+                evento.quantidade(),
+                evento.estoqueMinimo(),
+                evento.ocorridoEm());
+        canalAlertasEstoque.publicar(evento.usuarioId(), new EventoSse(null, "alerta-estoque", alerta));
+    }
+}
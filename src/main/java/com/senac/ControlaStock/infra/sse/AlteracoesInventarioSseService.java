@@ -0,0 +1,242 @@
+package com.senac.ControlaStock.infra.sse;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.senac.ControlaStock.application.dto.itemInventario.AlteracaoItemDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.TipoAlteracaoItem;
+import com.senac.ControlaStock.application.ports.AlteracoesInventarioServicePorts;
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent;
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent.AlteracaoEstoque;
+import com.senac.ControlaStock.domain.repository.VersaoInventarioRepository;
+import com.senac.ControlaStock.infra.sse.CanalSse.EventoSse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed de alterações dos itens por SSE, para o cliente acompanhar o inventário sem recarregar a
+ * lista. O último evento de cada operação leva como id a versão do inventário atribuída a ela (a
+ * mesma do ETag); os anteriores da mesma operação vão sem id, então o Last-Event-ID só avança
+ * quando a operação chegou inteira e vale em qualquer nó e depois de reinícios. Os eventos recentes
+ * de cada usuário ficam em memória por versão, e quem reconecta recebe em ordem as versões
+ * seguintes à sua, se todas estiverem no histórico deste nó. Quando não estão (conexão nova,
+ * versões feitas em outro nó ou já descartadas, ou uma operação que alterou muitos itens), o
+ * cliente recebe "ressincronizar" e deve recarregar a lista; o id desse evento é a versão a partir
+ * da qual as alterações seguem.
+ *
+ * <p>Ao vivo saem as alterações feitas neste nó. As versões seguem a ordem dos commits, mas os
+ * listeners de depois do commit podem rodar fora dela: uma operação que chega depois de uma versão
+ * mais nova já publicada não é entregue (o estado dos itens seria o anterior); entra no histórico
+ * na sua posição e as conexões abertas recebem "ressincronizar".
+ */
+@Service
+public class AlteracoesInventarioSseService implements AlteracoesInventarioServicePorts {
+
+    @Autowired
+    private CanalSse canalAlteracoesInventario;
+
+    @Autowired
+    private VersaoInventarioRepository versaoInventarioRepository;
+
+    @Value("${controlastock.feed.historico-por-usuario:1000}")
+    private int tamanhoHistorico;
+
+    @Value("${controlastock.feed.retencao-historico:PT30M}")
+    private Duration retencaoHistorico;
+
+    @Value("${controlastock.feed.maximo-itens-por-operacao:100}")
+    private int maximoItensPorOperacao;
+
+    private Cache<Long, Historico> historicos;
+
+    @PostConstruct
+    void inicializar() {
+        this.historicos = Caffeine.newBuilder()
+                .expireAfterAccess(retencaoHistorico)
+                // Ainda mapeado, o histórico é marcado sob o seu lock: quem o estava usando termina
+                // antes, e quem o obtiver depois pega um novo
+                .evictionListener((Long usuarioId, Historico historico, RemovalCause causa) -> historico.descartar())
+                .build();
+    }
+
+    @Override
+    public SseEmitter assinar(Usuario usuarioLogado, String ultimoEventoId) {
+        long ultimaRecebida = versaoDoId(ultimoEventoId);
+        // Lida antes do lock: o que for publicado entre a leitura e o lock já está no histórico
+        long versaoAtual = versaoInventarioRepository.buscarVersao(usuarioLogado.getId()).orElse(0L);
+
+        // Com o lock do histórico nenhuma publicação acontece entre montar o replay e registrar a conexão
+        Historico historico = travar(usuarioLogado.getId());
+        try {
+            long ate = Math.max(versaoAtual, historico.ultimaVersao);
+            // Operações até esta versão ainda não publicadas aqui chegam atrasadas para esta conexão
+            historico.ultimaVersao = ate;
+            List<EventoSse> perdidos = historico.eventosEntre(ultimaRecebida, ate);
+            List<EventoSse> iniciais = perdidos != null ? perdidos : List.of(ressincronizar(ate, Instant.now()));
+            return canalAlteracoesInventario.assinar(usuarioLogado.getId(), iniciais);
+        } finally {
+            historico.lock.unlock();
+        }
+    }
+
+    // Depois do commit; publicar só enfileira no despacho do canal, sem esperar pela rede
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(EstoqueAlteradoEvent evento) {
+        long versao = evento.versaoInventario();
+        List<EventoSse> eventos = eventos(evento);
+
+        Historico historico = travar(evento.usuarioId());
+        try {
+            historico.registrar(versao, eventos);
+            if (versao > historico.ultimaVersao) {
+                historico.ultimaVersao = versao;
+                eventos.forEach(sse -> canalAlteracoesInventario.publicar(evento.usuarioId(), sse));
+            } else {
+                historico.atrasada(versao);
+                canalAlteracoesInventario.publicar(evento.usuarioId(), ressincronizar(historico.ultimaVersao, evento.ocorridoEm()));
+            }
+        } finally {
+            historico.lock.unlock();
+        }
+    }
+
+    private List<EventoSse> eventos(EstoqueAlteradoEvent evento) {
+        List<AlteracaoItemDto> alteracoes = consolidarPorItem(evento);
+        if (alteracoes.size() > maximoItensPorOperacao) {
+            return List.of(ressincronizar(evento.versaoInventario(), evento.ocorridoEm()));
+        }
+        List<EventoSse> eventos = new ArrayList<>(alteracoes.size());
+        for (int i = 0; i < alteracoes.size(); i++) {
+            String id = i == alteracoes.size() - 1 ? Long.toString(evento.versaoInventario()) : null;
+            eventos.add(new EventoSse(id, "item", alteracoes.get(i)));
+        }
+        return eventos;
+    }
+
+    // Um evento por item, com o estado final (um lote pode movimentar o mesmo item várias vezes)
+    private List<AlteracaoItemDto> consolidarPorItem(EstoqueAlteradoEvent evento) {
+        Map<Long, TipoAlteracaoItem> tipos = new LinkedHashMap<>();
+        Map<Long, ItemInventario> itens = new LinkedHashMap<>();
+        for (AlteracaoEstoque alteracao : evento.alteracoes()) {
+            tipos.merge(alteracao.itemId(), tipo(alteracao), (anterior, novo) -> novo == TipoAlteracaoItem.ITEM_REMOVIDO ? novo : anterior);
+            itens.put(alteracao.itemId(), alteracao.item());
+        }
+
+        List<AlteracaoItemDto> alteracoes = new ArrayList<>(tipos.size());
+        tipos.forEach((itemId, tipo) -> alteracoes.add(new AlteracaoItemDto(tipo, itemId,
+                tipo == TipoAlteracaoItem.ITEM_REMOVIDO ? null : toResponseDto(itens.get(itemId)),
+                evento.ocorridoEm())));
+        return alteracoes;
+    }
+
+    private TipoAlteracaoItem tipo(AlteracaoEstoque alteracao) {
+        return switch (alteracao.tipo()) {
+            case CRIACAO -> TipoAlteracaoItem.ITEM_CRIADO;
+            case AJUSTE -> TipoAlteracaoItem.ITEM_ATUALIZADO;
+            case ENTRADA, SAIDA -> TipoAlteracaoItem.QUANTIDADE_ALTERADA;
+            case REMOCAO -> TipoAlteracaoItem.ITEM_REMOVIDO;
+        };
+    }
+
+    // O histórico do usuário, já com o lock; um descartado pela expiração é trocado por um novo
+    private Historico travar(Long usuarioId) {
+        while (true) {
+            Historico historico = historicos.get(usuarioId, id -> new Historico());
+            historico.lock.lock();
+            if (!historico.descartado) {
+                return historico;
+            }
+            historico.lock.unlock();
+        }
+    }
+
+    private EventoSse ressincronizar(long versao, Instant ocorridoEm) {
+        return new EventoSse(Long.toString(versao), "ressincronizar",
+                new AlteracaoItemDto(TipoAlteracaoItem.RESSINCRONIZAR, null, null, ocorridoEm));
+    }
+
+    // -1 quando o id está ausente ou malformado
+    private long versaoDoId(String id) {
+        if (id == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private ItemInventarioResponseDto toResponseDto(ItemInventario item) {
+        return new ItemInventarioResponseDto(item.getId(), item.getNome(), item.getDescricao(),
+                item.getQuantidade(), item.getLocalizacao(), item.getEstoqueMinimo(), item.getVersao());
+    }
+
+    private final class Historico {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeMap<Long, List<EventoSse>> porVersao = new TreeMap<>();
+        private int totalEventos;
+        // Maior versão publicada ou já coberta por uma conexão; as que chegam depois dela estão atrasadas
+        private long ultimaVersao;
+        // Quem parou entre estas versões pode ter recebido a mais nova sem a atrasada: não retoma
+        private long ambiguaDe = Long.MAX_VALUE;
+        private long ambiguaAte = -1;
+        private boolean descartado;
+
+        private void registrar(long versao, List<EventoSse> eventos) {
+            porVersao.put(versao, eventos);
+            totalEventos += eventos.size();
+            while (totalEventos > tamanhoHistorico && porVersao.size() > 1) {
+                totalEventos -= porVersao.pollFirstEntry().getValue().size();
+            }
+        }
+
+        private void atrasada(long versao) {
+            ambiguaDe = Math.min(ambiguaDe, versao);
+            ambiguaAte = Math.max(ambiguaAte, ultimaVersao);
+        }
+
+        // Null quando não há como garantir que o cliente recebe tudo o que perdeu, na ordem das versões
+        private List<EventoSse> eventosEntre(long ultima, long ate) {
+            if (ultima < 0 || ultima > ate || ate - ultima > tamanhoHistorico
+                    || (ultima >= ambiguaDe && ultima <= ambiguaAte)) {
+                return null;
+            }
+            List<EventoSse> eventos = new ArrayList<>();
+            for (long versao = ultima + 1; versao <= ate; versao++) {
+                List<EventoSse> daVersao = porVersao.get(versao);
+                if (daVersao == null) {
+                    return null;
+                }
+                eventos.addAll(daVersao);
+            }
+            return eventos;
+        }
+
+        private void descartar() {
+            lock.lock();
+            try {
+                descartado = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
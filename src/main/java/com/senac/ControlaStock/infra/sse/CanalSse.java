@@ -0,0 +1,242 @@
+package com.senac.ControlaStock.infra.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canal de Server-Sent Events com conexões agrupadas por usuário. Publicar só entrega o evento a
+ * uma virtual thread de despacho, que gera o JSON uma vez e o coloca na fila de cada conexão do
+ * usuário; cada conexão tem uma fila limitada e uma virtual thread que a esvazia no SseEmitter.
+ * Assim quem publica (normalmente o fim de um commit) não paga pelo número de conexões nem espera
+ * pela rede. Se a fila de uma conexão enche, o evento é descartado e a conexão é encerrada como
+ * consumidor lento, em vez de seguir com uma lacuna silenciosa; o cliente reconecta e ressincroniza.
+ */
+public class CanalSse {
+
+    private static final Logger log = LoggerFactory.getLogger(CanalSse.class);
+
+    public record EventoSse(String id, String nome, Object dados) {}
+
+    private record Mensagem(String id, String nome, String json) {}
+
+    // Itens da fila de despacho, processados na ordem de chegada
+    private interface Despacho {}
+
+    private record Publicacao(Long usuarioId, EventoSse evento) implements Despacho {}
+
+    private record Ativacao(Conexao conexao) implements Despacho {}
+
+    private static final int ABERTA = 0;
+    private static final int ENCERRADA = 1;
+    private static final int ENCERRADA_PELO_SERVIDOR = 2;
+
+    private final String nome;
+    private final SsePropriedades propriedades;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, Set<Conexao>> conexoes = new ConcurrentHashMap<>();
+    // Sem limite: o despacho só enfileira nas conexões, então não fica para trás de quem publica
+    private final BlockingQueue<Despacho> despachos = new LinkedBlockingQueue<>();
+    private final Thread despacho;
+    private final Counter eventosDescartados;
+
+    public CanalSse(String nome, SsePropriedades propriedades, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.nome = nome;
+        this.propriedades = propriedades;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("controlastock.sse.conexoes", conexoes, c -> c.values().stream().mapToInt(Set::size).sum())
+                .description("Conexões SSE abertas")
+                .tag("canal", nome)
+                .register(meterRegistry);
+        this.eventosDescartados = Counter.builder("controlastock.sse.eventos.descartados")
+                .description("Eventos descartados porque a fila da conexão estava cheia")
+                .tag("canal", nome)
+                .register(meterRegistry);
+        this.despacho = Thread.ofVirtual().name("sse-" + nome + "-despacho").start(this::despachar);
+    }
+
+    public SseEmitter assinar(Long usuarioId) {
+        return assinar(usuarioId, List.of());
+    }
+
+    /**
+     * Os eventos iniciais (ex.: os perdidos desde a última conexão) vão direto para a fila da
+     * conexão, que só passa a receber o que for publicado depois desta chamada: quem serializa
+     * publicar e assinar (o histórico do feed) obtém o replay e a continuação sem lacuna nem repetição.
+     */
+    public SseEmitter assinar(Long usuarioId, List<EventoSse> iniciais) {
+        if (iniciais.size() > propriedades.capacidadeFila()) {
+            throw new IllegalArgumentException("Eventos iniciais excedem a capacidade da fila");
+        }
+        Conexao conexao = new Conexao(usuarioId, new SseEmitter(propriedades.timeout().toMillis()));
+        iniciais.forEach(evento -> conexao.fila.add(serializar(evento)));
+
+        AtomicBoolean aceita = new AtomicBoolean();
+        conexoes.compute(usuarioId, (id, atuais) -> {
+            Set<Conexao> doUsuario = atuais != null ? atuais : ConcurrentHashMap.newKeySet();
+            if (doUsuario.size() < propriedades.maximoConexoesPorUsuario()) {
+                doUsuario.add(conexao);
+                aceita.set(true);
+            }
+            return doUsuario;
+        });
+        if (!aceita.get()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Limite de conexões simultâneas de notificação atingido.");
+        }
+
+        despachos.add(new Ativacao(conexao));
+        conexao.iniciar();
+        return conexao.emitter;
+    }
+
+    public void publicar(Long usuarioId, EventoSse evento) {
+        // Uma conexão registrada depois desta verificação também seria ativada depois do evento
+        if (conexoes.containsKey(usuarioId)) {
+            despachos.add(new Publicacao(usuarioId, evento));
+        }
+    }
+
+    private void despachar() {
+        while (true) {
+            Despacho item;
+            try {
+                item = despachos.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                if (item instanceof Ativacao ativacao) {
+                    ativacao.conexao().recebendo = true;
+                } else if (item instanceof Publicacao publicacao) {
+                    Set<Conexao> doUsuario = conexoes.get(publicacao.usuarioId());
+                    if (doUsuario != null) {
+                        Mensagem mensagem = serializar(publicacao.evento());
+                        doUsuario.stream()
+                                .filter(conexao -> conexao.recebendo)
+                                .forEach(conexao -> conexao.oferecer(mensagem));
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Falha ao despachar evento SSE no canal {}", nome, e);
+            }
+        }
+    }
+
+    private Mensagem serializar(EventoSse evento) {
+        try {
+            return new Mensagem(evento.id(), evento.nome(), objectMapper.writeValueAsString(evento.dados()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Evento SSE não serializável: " + evento.nome(), e);
+        }
+    }
+
+    // Sem isto o desligamento gracioso do Tomcat esperaria as conexões abertas até o timeout
+    @EventListener(ContextClosedEvent.class)
+    public void encerrarConexoes() {
+        despacho.interrupt();
+        conexoes.values().forEach(doUsuario -> doUsuario.forEach(conexao -> conexao.encerrar("desligamento", true)));
+    }
+
+    private void remover(Conexao conexao) {
+        conexoes.computeIfPresent(conexao.usuarioId, (id, doUsuario) -> {
+            doUsuario.remove(conexao);
+            return doUsuario.isEmpty() ? null : doUsuario;
+        });
+    }
+
+    private final class Conexao {
+
+        private final Long usuarioId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Mensagem> fila;
+        // ABERTA, ENCERRADA (pelo container ou por erro de escrita) ou ENCERRADA_PELO_SERVIDOR
+        private final AtomicInteger estado = new AtomicInteger(ABERTA);
+        private volatile Thread envio;
+        // Só lido e alterado pela thread de despacho
+        private boolean recebendo;
+
+        private Conexao(Long usuarioId, SseEmitter emitter) {
+            this.usuarioId = usuarioId;
+            this.emitter = emitter;
+            this.fila = new LinkedBlockingQueue<>(propriedades.capacidadeFila());
+            emitter.onCompletion(() -> encerrar(null, false));
+            emitter.onTimeout(() -> encerrar("timeout", false));
+            emitter.onError(erro -> encerrar("erro", false));
+        }
+
+        private void iniciar() {
+            envio = Thread.ofVirtual().name("sse-" + nome + "-" + usuarioId).start(this::enviar);
+        }
+
+        private void oferecer(Mensagem mensagem) {
+            if (!fila.offer(mensagem)) {
+                eventosDescartados.increment();
+                log.warn("Conexão SSE do usuário {} no canal {} encerrada: fila cheia", usuarioId, nome);
+                encerrar("lento", true);
+            }
+        }
+
+        // Única thread que escreve no emitter
+        private void enviar() {
+            try {
+                emitter.send(SseEmitter.event().comment("conectado"));
+                while (estado.get() == ABERTA) {
+                    Mensagem mensagem = fila.poll(propriedades.heartbeat().toMillis(), TimeUnit.MILLISECONDS);
+                    if (mensagem == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        SseEmitter.SseEventBuilder sse = SseEmitter.event()
+                                .name(mensagem.nome())
+                                .data(mensagem.json());
+                        emitter.send(mensagem.id() != null ? sse.id(mensagem.id()) : sse);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // encerrada por outra thread
+            } catch (IOException | IllegalStateException e) {
+                encerrar("erro", false);
+            }
+            if (estado.get() == ENCERRADA_PELO_SERVIDOR) {
+                emitter.complete();
+            }
+        }
+
+        // pelo servidor = o emitter ainda precisa ser completado; nos demais casos o container já encerrou
+        private void encerrar(String motivo, boolean peloServidor) {
+            if (!estado.compareAndSet(ABERTA, peloServidor ? ENCERRADA_PELO_SERVIDOR : ENCERRADA)) {
+                return;
+            }
+            remover(this);
+            if (motivo != null) {
+                meterRegistry.counter("controlastock.sse.desconexoes", "canal", nome, "motivo", motivo).increment();
+            }
+            Thread thread = envio;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.senac.ControlaStock.infra.sse;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "controlastock.sse")
+public record SsePropriedades(
+        // Eventos aguardando envio por conexão; se a fila enche, o cliente é desconectado como lento.
+        // Precisa comportar a maior rajada legítima: um lote de 1000 movimentações gera até 1000 alertas.
+        @DefaultValue("2048") int capacidadeFila,
+        @DefaultValue("5") int maximoConexoesPorUsuario,
+        // Intervalo do comentário enviado a conexões ociosas (mantém proxies abertos e detecta quedas)
+        @DefaultValue("15s") Duration heartbeat,
+        @DefaultValue("30m") Duration timeout
+) {}
@@ -10,7 +10,10 @@ import com.senac.ControlaStock.domain.entities.Usuario;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,6 +29,8 @@ import java.util.Map;
 @Tag(name = "Autenticação", description = "Endpoints responsáveis pela autenticação e registro de usuários.")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -52,27 +57,43 @@ public class AuthController {
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Credenciais inválidas"));
+        } catch (org.springframework.web.server.ResponseStatusException e) {
+            // 503 quando o pool de hash de senhas está saturado
+            return ResponseEntity.status(e.getStatusCode())
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", e.getReason()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Erro ao processar login"));
         }
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Realiza o logout do usuário", description = "Revoga o token JWT enviado no header Authorization.")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || authorization.isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Header 'Authorization' é obrigatório"));
+        }
+
+        tokenService.revogarToken(authorization.replace("Bearer ", "").trim());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/registrar")
     @Operation(summary = "Registra um novo usuário", description = "Cria um novo usuário no sistema e retorna seus dados sem a senha.")
     public ResponseEntity<?> registrar(@Valid @RequestBody UsuarioRequestDto usuarioRequestDto) {
         try {
-            System.out.println("AuthController - Recebida requisição de registro para: " + usuarioRequestDto.email());
+            log.debug("Recebida requisição de registro para: {}", usuarioRequestDto.email());
             UsuarioResponseDto novoUsuario = usuarioService.criarUsuario(usuarioRequestDto);
-            System.out.println("AuthController - Usuário criado com sucesso: " + novoUsuario.email());
+            log.info("Usuário criado com sucesso: {}", novoUsuario.email());
             return new ResponseEntity<>(novoUsuario, HttpStatus.CREATED);
         } catch (org.springframework.web.server.ResponseStatusException e) {
-            System.err.println("AuthController - Erro ao registrar usuário: " + e.getReason());
+            log.debug("Erro ao registrar usuário: {}", e.getReason());
             return ResponseEntity.status(e.getStatusCode())
                     .body(Map.of("error", e.getReason()));
         } catch (Exception e) {
-            System.err.println("AuthController - Erro ao registrar usuário: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Erro ao registrar usuário", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Erro ao registrar usuário: " + e.getMessage()));
         }
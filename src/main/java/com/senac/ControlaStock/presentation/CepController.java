@@ -7,6 +7,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/cep")
@@ -18,14 +22,22 @@ public class CepController {
 
     @GetMapping("/{cep}")
     @Operation(summary = "Busca endereço pelo CEP")
-    public ResponseEntity<EnderecoResponseDto> buscarCep(@PathVariable String cep) {
+    public CompletableFuture<ResponseEntity<EnderecoResponseDto>> buscarCep(@PathVariable String cep) {
         try {
-            EnderecoResponseDto endereco = cepService.buscarEnderecoPorCep(cep);
-            return ResponseEntity.ok(endereco);
+            // A thread do Tomcat é liberada enquanto o ViaCEP responde
+            return cepService.buscarEnderecoPorCepAsync(cep)
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(this::tratarErro);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+    }
+
+    private ResponseEntity<EnderecoResponseDto> tratarErro(Throwable erro) {
+        Throwable causa = erro instanceof CompletionException ? erro.getCause() : erro;
+        if (causa instanceof ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
         }
+        return ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+}
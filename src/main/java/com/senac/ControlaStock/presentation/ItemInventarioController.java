@@ -1,19 +1,37 @@
 package com.senac.ControlaStock.presentation;
 
+import com.senac.ControlaStock.application.ports.AlertaEstoqueServicePorts;
+import com.senac.ControlaStock.application.ports.AlteracoesInventarioServicePorts;
 import com.senac.ControlaStock.application.ports.ItemInventarioServicePorts;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioBuscaResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioImportacaoResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioPaginaResponseDto;
 import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioRequestDto;
 import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ResumoEstoqueResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoEstoquePaginaResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteRequestDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.QuantidadeEmInstanteResponseDto;
 import com.senac.ControlaStock.domain.entities.Usuario;
-import com.senac.ControlaStock.domain.repository.UsuarioRepository;
+import com.senac.ControlaStock.application.services.UsuarioCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -25,7 +43,13 @@ public class ItemInventarioController {
     private ItemInventarioServicePorts itemInventarioService;
 
     @Autowired
-    private UsuarioRepository usuarioRepository;
+    private AlertaEstoqueServicePorts alertaEstoqueService;
+
+    @Autowired
+    private AlteracoesInventarioServicePorts alteracoesInventarioService;
+
+    @Autowired
+    private UsuarioCache usuarioCache;
 
     /**
      * 🔧 MODO DESENVOLVIMENTO: Busca o usuário pelo email enviado no header
@@ -39,33 +63,205 @@ public class ItemInventarioController {
             );
         }
 
-        return usuarioRepository.findByEmail(email)
+        return usuarioCache.buscarPorEmail(email)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Usuário com email '" + email + "' não encontrado."
                 ));
     }
 
+    /**
+     * ETag forte das consultas: a versão do inventário do usuário, incrementada a cada alteração.
+     * O id do usuário entra na tag porque a mesma URL devolve inventários diferentes por usuário.
+     */
+    private String etag(Usuario usuario) {
+        return etag(usuario, itemInventarioService.versaoInventario(usuario));
+    }
+
+    private String etag(Usuario usuario, long versao) {
+        return "\"" + usuario.getId() + "-" + versao + "\"";
+    }
+
+    private ResponseEntity.BodyBuilder okComEtag(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy("X-User-Email");
+    }
+
+    // Versão exigida pelo If-Match; null quando o header está ausente ou é "*"
+    private Long versaoEsperada(String ifMatch, Usuario usuario) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefixo = "\"" + usuario.getId() + "-";
+        if (tag.startsWith(prefixo) && tag.endsWith("\"") && tag.length() > prefixo.length() + 1) {
+            try {
+                return Long.valueOf(tag.substring(prefixo.length(), tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // cai no 412 abaixo
+            }
+        }
+        // Tag fraca, de outro usuário ou desconhecida nunca corresponde à versão atual
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "O inventário foi alterado desde a última consulta. Consulte novamente antes de alterar.");
+    }
+
     @GetMapping
-    @Operation(summary = "Lista todos os itens do inventário do usuário")
+    @Operation(summary = "Lista todos os itens do inventário do usuário",
+            description = "Responde com ETag; com If-None-Match igual à versão atual devolve 304 sem consultar os itens.")
     public ResponseEntity<List<ItemInventarioResponseDto>> listarTodos(
             @Parameter(description = "Email do usuário logado", required = true)
-            @RequestHeader("X-User-Email") String userEmail) {
+            @RequestHeader("X-User-Email") String userEmail,
+            WebRequest request) {
 
         Usuario usuario = getUsuarioPorEmail(userEmail);
+        // A versão é lida antes dos itens: se uma alteração entrar no meio, a tag fica mais antiga
+        // que o corpo e a próxima consulta condicional só recebe a lista de novo
+        String etag = etag(usuario);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<ItemInventarioResponseDto> itens = itemInventarioService.listarTodos(usuario);
-        return ResponseEntity.ok(itens);
+        return okComEtag(etag).body(itens);
+    }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Lista os itens do inventário em páginas (paginação por cursor)",
+            description = "Retorna até 'limite' itens (máximo 500) e um cursor opaco para buscar a próxima página. "
+                    + "Ordenação opcional por 'id' (padrão), 'nome' ou 'localizacao'.")
+    public ResponseEntity<ItemInventarioPaginaResponseDto> listarPagina(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String ordenarPor,
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        ItemInventarioPaginaResponseDto pagina = itemInventarioService.listarPagina(usuario, cursor, limite, ordenarPor);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/busca")
+    @Operation(summary = "Busca itens por nome, descrição ou localização",
+            description = "Busca aproximada (tolerante a erros de digitação) nos itens do usuário, "
+                    + "ordenada por relevância e paginada por cursor.")
+    public ResponseEntity<ItemInventarioBuscaResponseDto> buscarPorTexto(
+            @RequestParam String termo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        ItemInventarioBuscaResponseDto resultado = itemInventarioService.buscarPorTexto(termo, cursor, limite, usuario);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @GetMapping("/abaixo-do-minimo")
+    @Operation(summary = "Lista os itens abaixo do estoque mínimo",
+            description = "Itens cuja quantidade está abaixo do estoque mínimo configurado, paginados por cursor. "
+                    + "Usado junto com /alertas para obter o estado atual ao conectar.")
+    public ResponseEntity<ItemInventarioPaginaResponseDto> listarAbaixoDoMinimo(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        return ResponseEntity.ok(itemInventarioService.listarAbaixoDoMinimo(usuario, cursor, limite));
+    }
+
+    @GetMapping(value = "/alertas", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Alertas de estoque mínimo em tempo real (Server-Sent Events)",
+            description = "Envia um evento 'alerta-estoque' quando um item fica abaixo do estoque mínimo "
+                    + "(ESTOQUE_BAIXO) ou volta a atendê-lo (ESTOQUE_NORMALIZADO). Clientes que não acompanham "
+                    + "o ritmo dos eventos são desconectados e devem reconsultar /abaixo-do-minimo ao reconectar.")
+    public SseEmitter assinarAlertas(
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        return alertaEstoqueService.assinar(usuario);
+    }
+
+    @GetMapping(value = "/alteracoes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Alterações dos itens em tempo real (Server-Sent Events)",
+            description = "Eventos 'item' com ITEM_CRIADO, ITEM_ATUALIZADO, QUANTIDADE_ALTERADA ou ITEM_REMOVIDO e o "
+                    + "estado atual do item. O id do último evento de cada operação é a versão do inventário "
+                    + "(a mesma do ETag). Ao reconectar com Last-Event-ID o cliente recebe só o que perdeu; "
+                    + "quando isso não é possível (e na primeira conexão) recebe 'ressincronizar' e deve recarregar a lista.")
+    public SseEmitter assinarAlteracoes(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId,
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        return alteracoesInventarioService.assinar(usuario, ultimoEventoId);
+    }
+
+    @GetMapping("/resumo")
+    @Operation(summary = "Resumo do estoque por localização",
+            description = "Quantidade de itens, quantidade total e itens sem estoque por localização e no total. "
+                    + "Lido de um resumo mantido a cada alteração, sem varrer os itens.")
+    public ResponseEntity<ResumoEstoqueResponseDto> resumirPorLocalizacao(
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        return ResponseEntity.ok(itemInventarioService.resumirPorLocalizacao(usuario));
+    }
+
+    @PostMapping("/resumo/reconstruir")
+    @Operation(summary = "Reconstrói o resumo por localização a partir dos itens",
+            description = "Reparo de consistência: descarta o resumo do usuário e o recalcula.")
+    public ResponseEntity<ResumoEstoqueResponseDto> reconstruirResumo(
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        return ResponseEntity.ok(itemInventarioService.reconstruirResumo(usuario));
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Busca um item por ID")
+    @Operation(summary = "Busca um item por ID",
+            description = "Responde com ETag (a versão do inventário); com If-None-Match igual à versão atual devolve 304 "
+                    + "sem consultar o item. A mesma tag serve de If-Match no PUT e no DELETE.")
     public ResponseEntity<ItemInventarioResponseDto> buscarPorId(
             @PathVariable Long id,
-            @RequestHeader("X-User-Email") String userEmail) {
+            @RequestHeader("X-User-Email") String userEmail,
+            WebRequest request) {
 
         Usuario usuario = getUsuarioPorEmail(userEmail);
+        String etag = etag(usuario);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         ItemInventarioResponseDto item = itemInventarioService.buscarPorId(id, usuario);
-        return ResponseEntity.ok(item);
+        return okComEtag(etag).body(item);
+    }
+
+    @GetMapping("/{id}/movimentacoes")
+    @Operation(summary = "Histórico de movimentações de estoque do item",
+            description = "Movimentações das mais recentes para as mais antigas, paginadas por cursor. "
+                    + "Continua disponível depois que o item é excluído.")
+    public ResponseEntity<MovimentacaoEstoquePaginaResponseDto> listarMovimentacoes(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        MovimentacaoEstoquePaginaResponseDto pagina = itemInventarioService.listarMovimentacoes(id, cursor, limite, usuario);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/{id}/quantidade")
+    @Operation(summary = "Quantidade do item em um instante",
+            description = "Saldo do item no instante informado (ISO-8601, ex.: 2025-01-31T23:59:59Z); "
+                    + "sem o parâmetro, o saldo atual segundo o histórico.")
+    public ResponseEntity<QuantidadeEmInstanteResponseDto> consultarQuantidadeEm(
+            @PathVariable Long id,
+            @RequestParam(required = false) Instant em,
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        QuantidadeEmInstanteResponseDto quantidade = itemInventarioService.consultarQuantidadeEm(id, em, usuario);
+        return ResponseEntity.ok(quantidade);
     }
 
     @PostMapping
@@ -79,26 +275,56 @@ public class ItemInventarioController {
         return new ResponseEntity<>(novoItem, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/importar", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Importa itens em massa",
+            description = "Aceita CSV (cabeçalho com 'nome', 'descricao', 'quantidade', 'localizacao' e, opcionalmente, "
+                    + "'estoque_minimo') ou NDJSON "
+                    + "(um item JSON por linha). O conteúdo é lido em fluxo e gravado em lotes; "
+                    + "a resposta traz os erros por linha.")
+    public ResponseEntity<ItemInventarioImportacaoResponseDto> importarItens(
+            InputStream conteudo,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        String formato = MediaType.parseMediaType(contentType).getSubtype().equals("csv") ? "csv" : "ndjson";
+        ItemInventarioImportacaoResponseDto relatorio = itemInventarioService.importarItens(conteudo, formato, usuario);
+        return ResponseEntity.ok(relatorio);
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Atualiza um item do inventário")
+    @Operation(summary = "Atualiza um item do inventário",
+            description = "Com If-Match (ETag de uma consulta) a alteração só é aplicada se o inventário não mudou "
+                    + "desde então; caso contrário a resposta é 412. Com a versão do item no corpo (campo versao "
+                    + "da resposta), só se o item não mudou; caso contrário a resposta é 409.")
     public ResponseEntity<ItemInventarioResponseDto> atualizarItem(
             @PathVariable Long id,
             @RequestBody ItemInventarioRequestDto itemDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestHeader("X-User-Email") String userEmail) {
 
         Usuario usuario = getUsuarioPorEmail(userEmail);
-        ItemInventarioResponseDto itemAtualizado = itemInventarioService.atualizarItem(id, itemDto, usuario);
-        return ResponseEntity.ok(itemAtualizado);
+        Long versaoEsperada = versaoEsperada(ifMatch, usuario);
+        ItemInventarioResponseDto itemAtualizado = itemInventarioService.atualizarItem(id, itemDto, usuario, versaoEsperada);
+        if (versaoEsperada == null) {
+            return ResponseEntity.ok(itemAtualizado);
+        }
+        // Com If-Match a versão passou de esperada para esperada + 1 sem nenhuma alteração no meio,
+        // então a tag do item atualizado é conhecida sem outra consulta
+        return okComEtag(etag(usuario, versaoEsperada + 1)).body(itemAtualizado);
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Remove um item do inventário")
+    @Operation(summary = "Remove um item do inventário",
+            description = "Com If-Match (ETag de uma consulta) o item só é removido se o inventário não mudou "
+                    + "desde então; caso contrário a resposta é 412.")
     public ResponseEntity<Void> removerItem(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestHeader("X-User-Email") String userEmail) {
 
         Usuario usuario = getUsuarioPorEmail(userEmail);
-        itemInventarioService.removerItem(id, usuario);
+        itemInventarioService.removerItem(id, usuario, versaoEsperada(ifMatch, usuario));
         return ResponseEntity.noContent().build();
     }
 
@@ -125,4 +351,19 @@ public class ItemInventarioController {
         ItemInventarioResponseDto itemAtualizado = itemInventarioService.removerQuantidade(id, quantidade, usuario);
         return ResponseEntity.ok(itemAtualizado);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/movimentacoes")
+    @Operation(summary = "Aplica várias movimentações de estoque em uma única transação",
+            description = "Cada linha soma 'delta' (positivo ou negativo) à quantidade do item. "
+                    + "No modo TUDO_OU_NADA (padrão) qualquer linha inválida cancela o lote e a resposta é 422; "
+                    + "no modo MELHOR_ESFORCO as linhas válidas são aplicadas e as inválidas relatadas.")
+    public ResponseEntity<MovimentacaoLoteResponseDto> movimentarEmLote(
+            @Valid @RequestBody MovimentacaoLoteRequestDto requestDto,
+            @RequestHeader("X-User-Email") String userEmail) {
+
+        Usuario usuario = getUsuarioPorEmail(userEmail);
+        MovimentacaoLoteResponseDto resultado = itemInventarioService.movimentarEmLote(requestDto, usuario);
+        HttpStatus status = resultado.aplicado() ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(resultado);
+    }
+}
@@ -0,0 +1,95 @@
+-- Esquema inicial. Até aqui as tabelas eram criadas pelo Hibernate (ddl-auto=create-drop) e
+-- completadas pelo import.sql; a partir desta versão toda mudança de esquema é uma nova migração.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE TABLE usuario (
+    id     bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome   varchar(255) NOT NULL,
+    cnpj   varchar(255) NOT NULL UNIQUE,
+    cep    varchar(255),
+    email  varchar(255) NOT NULL UNIQUE,
+    senha  varchar(255) NOT NULL,
+    role   varchar(255) NOT NULL
+);
+
+CREATE TABLE tokens (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    hash       varchar(64) NOT NULL,
+    expira_em  timestamp(6) with time zone NOT NULL,
+    usuario_id bigint NOT NULL REFERENCES usuario (id),
+    CONSTRAINT uk_tokens_hash UNIQUE (hash)
+);
+-- Limpeza dos expirados em lotes e limite de tokens ativos por usuário
+CREATE INDEX idx_tokens_expira_em ON tokens (expira_em);
+CREATE INDEX idx_tokens_usuario_id ON tokens (usuario_id, id);
+
+-- Itens particionados por hash do usuário: toda consulta dos services filtra por usuario_id, então
+-- o planner lê uma única partição, e vacuum e manutenção de índices acompanham o tamanho de cada
+-- partição, não o da tabela inteira. A chave primária precisa conter a chave de partição; o id
+-- continua único pela sequência. Os índices criados na tabela pai são criados em cada partição.
+-- Mudar o número de partições exige uma nova migração que recrie a tabela e copie os itens.
+CREATE SEQUENCE itens_inventario_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE itens_inventario (
+    id             bigint NOT NULL,
+    usuario_id     bigint NOT NULL REFERENCES usuario (id),
+    nome           varchar(255) NOT NULL,
+    descricao      varchar(500),
+    quantidade     integer NOT NULL,
+    localizacao    varchar(255) NOT NULL,
+    estoque_minimo integer,
+    -- Itens abaixo do estoque mínimo: coluna gerada com a condição e índice parcial só com esses
+    -- itens. O índice não cita a quantidade, então entradas e saídas continuam elegíveis a HOT
+    -- update; a entrada no índice só muda quando o item cruza o mínimo.
+    abaixo_do_minimo boolean GENERATED ALWAYS AS (quantidade < estoque_minimo) STORED,
+    PRIMARY KEY (usuario_id, id)
+) PARTITION BY HASH (usuario_id);
+
+DO $$
+BEGIN
+    FOR resto IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE itens_inventario_p%s PARTITION OF itens_inventario '
+                       'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(resto::text, 2, '0'), resto);
+    END LOOP;
+END
+$$;
+
+-- Paginação por cursor (keyset) de cada ordenação; a de id usa a chave primária
+CREATE INDEX idx_itens_usuario_nome ON itens_inventario (usuario_id, nome, id);
+CREATE INDEX idx_itens_usuario_localizacao ON itens_inventario (usuario_id, localizacao, id);
+CREATE INDEX idx_itens_abaixo_minimo ON itens_inventario (usuario_id, id) WHERE abaixo_do_minimo;
+-- Busca textual: GiST de trigramas sobre nome/descrição/localização, com usuario_id como primeira
+-- coluna (btree_gist). O GiST permite ordenar pela distância (<<->) direto no índice e parar nos
+-- primeiros resultados; siglen=128 reduz falsos positivos em relação à assinatura padrão de 12 bytes.
+CREATE INDEX idx_itens_busca_trgm ON itens_inventario
+    USING gist (usuario_id, (lower(nome || ' ' || coalesce(descricao, '') || ' ' || localizacao)) gist_trgm_ops(siglen=128));
+
+-- Histórico de movimentações; sem chave estrangeira para o item, que pode ser excluído
+CREATE SEQUENCE movimentacao_estoque_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE movimentacao_estoque (
+    id                    bigint PRIMARY KEY,
+    item_id               bigint NOT NULL,
+    usuario_id            bigint NOT NULL,
+    tipo                  varchar(20) NOT NULL CHECK (tipo IN ('CRIACAO', 'AJUSTE', 'ENTRADA', 'SAIDA', 'REMOCAO')),
+    delta                 integer NOT NULL,
+    quantidade_resultante integer NOT NULL,
+    ocorrido_em           timestamp(6) with time zone NOT NULL
+);
+CREATE INDEX idx_movimentacao_item_ocorrido ON movimentacao_estoque (item_id, ocorrido_em, id);
+
+CREATE TABLE resumo_estoque_localizacao (
+    usuario_id        bigint NOT NULL,
+    localizacao       varchar(255) NOT NULL,
+    total_itens       bigint NOT NULL,
+    quantidade_total  bigint NOT NULL,
+    itens_sem_estoque bigint NOT NULL,
+    PRIMARY KEY (usuario_id, localizacao)
+);
+
+CREATE TABLE versao_inventario (
+    usuario_id bigint PRIMARY KEY,
+    versao     bigint NOT NULL
+);
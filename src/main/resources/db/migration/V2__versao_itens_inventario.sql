@@ -0,0 +1,5 @@
+-- Versão de cada item para controle otimista de concorrência (@Version): o UPDATE de uma entidade
+-- lida antes confere a versão no WHERE, e as movimentações atômicas também a incrementam, então
+-- quem leu o item antes de qualquer alteração recebe conflito em vez de sobrescrevê-la. O DEFAULT
+-- preenche os itens existentes sem reescrever a tabela (PostgreSQL 11+).
+ALTER TABLE itens_inventario ADD COLUMN versao bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+package com.senac.ControlaStock.application.services;
+
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Os mesmos cenários de concorrência contra os repositórios em memória: os bloqueios de linha e o
+ * rollback precisam dar os mesmos resultados que o PostgreSQL.
+ */
+@ActiveProfiles("memoria")
+@Import(ItemInventarioServiceConcorrenciaTest.ColetorAlertas.class)
+class ItemInventarioServiceConcorrenciaMemoriaTest extends ItemInventarioServiceConcorrenciaTest {
+}
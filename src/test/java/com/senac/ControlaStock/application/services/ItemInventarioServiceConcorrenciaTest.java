@@ -0,0 +1,288 @@
+package com.senac.ControlaStock.application.services;
+
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioRequestDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ResumoEstoqueResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoItemDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteRequestDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteResponseDto;
+import com.senac.ControlaStock.application.ports.ItemInventarioServicePorts;
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.entities.MovimentacaoEstoque;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.events.EstoqueMinimoCruzadoEvent;
+import com.senac.ControlaStock.domain.repository.ItemInventarioRepository;
+import com.senac.ControlaStock.domain.repository.MovimentacaoEstoqueRepository;
+import com.senac.ControlaStock.domain.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemInventarioServiceConcorrenciaTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ItemInventarioServicePorts itemInventarioService;
+
+    @Autowired
+    private ItemInventarioRepository itemInventarioRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MovimentacaoEstoqueRepository movimentacaoEstoqueRepository;
+
+    @Autowired
+    private ColetorAlertas coletorAlertas;
+
+    private Usuario usuario;
+
+    @TestConfiguration
+    static class ColetorAlertas {
+
+        final Queue<EstoqueMinimoCruzadoEvent> eventos = new ConcurrentLinkedQueue<>();
+
+        @TransactionalEventListener(fallbackExecution = true)
+        void coletar(EstoqueMinimoCruzadoEvent evento) {
+            eventos.add(evento);
+        }
+    }
+
+    @BeforeEach
+    void criarUsuario() {
+        String sufixo = UUID.randomUUID().toString().substring(0, 8);
+        Usuario novoUsuario = new Usuario();
+        novoUsuario.setNome("Concorrência " + sufixo);
+        novoUsuario.setCnpj(String.format("%014d", Math.abs(sufixo.hashCode())));
+        novoUsuario.setEmail("concorrencia-" + sufixo + "@teste.com");
+        novoUsuario.setSenha("nao-usada");
+        usuario = usuarioRepository.save(novoUsuario);
+    }
+
+    @Test
+    void adicoesParalelasNaoPerdemIncrementos() throws Exception {
+        ItemInventario item = criarItem(0);
+        int adicoesPorThread = 25;
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < adicoesPorThread; i++) {
+                itemInventarioService.adicionarQuantidade(item.getId(), 1, usuario);
+            }
+        });
+
+        assertEquals(THREADS * adicoesPorThread, quantidadeAtual(item));
+
+        // Cada adição gera uma movimentação, e os saldos resultantes formam a sequência 1..N sem repetição
+        List<MovimentacaoEstoque> historico = movimentacaoEstoqueRepository.buscarPrimeiraPaginaHistorico(
+                item.getId(), usuario.getId(), Limit.of(THREADS * adicoesPorThread + 1));
+        Set<Integer> saldos = historico.stream()
+                .map(MovimentacaoEstoque::getQuantidadeResultante)
+                .collect(Collectors.toSet());
+        assertEquals(THREADS * adicoesPorThread, historico.size());
+        assertEquals(IntStream.rangeClosed(1, THREADS * adicoesPorThread).boxed().collect(Collectors.toSet()), saldos);
+    }
+
+    @Test
+    void retiradasParalelasAlertamUmaVezAoCruzarOEstoqueMinimo() throws Exception {
+        ItemInventario item = criarItem(100);
+        item.setEstoqueMinimo(50);
+        itemInventarioRepository.save(item);
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < 10; i++) {
+                try {
+                    itemInventarioService.removerQuantidade(item.getId(), 1, usuario);
+                } catch (ResponseStatusException e) {
+                    // estoque esgotado
+                }
+            }
+        });
+
+        // Só a retirada que levou o saldo de 50 para 49 cruza o mínimo
+        List<EstoqueMinimoCruzadoEvent> alertas = coletorAlertas.eventos.stream()
+                .filter(e -> e.itemId().equals(item.getId()))
+                .collect(Collectors.toList());
+        assertEquals(1, alertas.size());
+        assertTrue(alertas.get(0).abaixoDoMinimo());
+        assertEquals(49, alertas.get(0).quantidade());
+    }
+
+    @Test
+    void retiradasParalelasNuncaDeixamEstoqueNegativo() throws Exception {
+        int estoqueInicial = 100;
+        ItemInventario item = criarItem(estoqueInicial);
+        AtomicInteger retiradasAceitas = new AtomicInteger();
+        AtomicInteger retiradasRecusadas = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < 10; i++) {
+                try {
+                    itemInventarioService.removerQuantidade(item.getId(), 1, usuario);
+                    retiradasAceitas.incrementAndGet();
+                } catch (ResponseStatusException e) {
+                    retiradasRecusadas.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(estoqueInicial, retiradasAceitas.get());
+        assertEquals(THREADS * 10 - estoqueInicial, retiradasRecusadas.get());
+        assertEquals(0, quantidadeAtual(item));
+    }
+
+    @Test
+    void entradasParalelasNaoPassamDoMaximoDoEstoque() throws Exception {
+        ItemInventario item = criarItem(Integer.MAX_VALUE - 100);
+        AtomicInteger recusadas = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            try {
+                itemInventarioService.adicionarQuantidade(item.getId(), 10, usuario);
+            } catch (ResponseStatusException e) {
+                assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+                recusadas.incrementAndGet();
+            }
+        });
+
+        assertEquals(THREADS - 10, recusadas.get());
+        assertEquals(Integer.MAX_VALUE, quantidadeAtual(item));
+
+        // No lote, a linha que passaria do máximo é recusada com o motivo certo
+        MovimentacaoLoteResponseDto lote = itemInventarioService.movimentarEmLote(new MovimentacaoLoteRequestDto(null,
+                List.of(new MovimentacaoItemDto(item.getId(), 1))), usuario);
+        assertFalse(lote.aplicado());
+        assertTrue(lote.resultados().get(0).erro().contains("excede o máximo"));
+        assertEquals(Integer.MAX_VALUE, quantidadeAtual(item));
+    }
+
+    @Test
+    void atualizacoesParalelasComAMesmaVersaoSoUmaEAplicada() throws Exception {
+        ItemInventario item = criarItem(10);
+        long versaoLida = itemInventarioService.versaoInventario(usuario);
+        AtomicInteger aplicadas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            try {
+                itemInventarioService.atualizarItem(item.getId(),
+                        new ItemInventarioRequestDto("Renomeado", null, 20, "Estoque Principal", null, null), usuario, versaoLida);
+                aplicadas.incrementAndGet();
+            } catch (ResponseStatusException e) {
+                assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+                recusadas.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, aplicadas.get());
+        assertEquals(THREADS - 1, recusadas.get());
+        assertEquals(versaoLida + 1, itemInventarioService.versaoInventario(usuario));
+    }
+
+    @Test
+    void atualizacoesParalelasComAMesmaVersaoDoItemSoUmaEAplicada() throws Exception {
+        ItemInventario item = criarItem(10);
+        long versaoDoItem = itemInventarioService.adicionarQuantidade(item.getId(), 5, usuario).versao();
+        AtomicInteger aplicadas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            try {
+                itemInventarioService.atualizarItem(item.getId(),
+                        new ItemInventarioRequestDto("Renomeado", null, 20, "Estoque Principal", null, versaoDoItem), usuario, null);
+                aplicadas.incrementAndGet();
+            } catch (ResponseStatusException e) {
+                assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+                recusadas.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, aplicadas.get());
+        assertEquals(THREADS - 1, recusadas.get());
+        assertEquals(versaoDoItem + 1, itemInventarioService.buscarPorId(item.getId(), usuario).versao());
+    }
+
+    @Test
+    void reconstrucaoDoResumoEmParaleloComCriacoesEmLocalizacoesNovas() throws Exception {
+        AtomicInteger papeis = new AtomicInteger();
+        int criacoesPorThread = 10;
+
+        executarEmParalelo(() -> {
+            int papel = papeis.getAndIncrement();
+            for (int i = 0; i < criacoesPorThread; i++) {
+                if (papel % 2 == 0) {
+                    itemInventarioService.reconstruirResumo(usuario);
+                } else {
+                    itemInventarioService.criarItem(new ItemInventarioRequestDto(
+                            "Item " + papel + "-" + i, null, 2, "Local " + papel + "-" + i, null, null), usuario);
+                }
+            }
+        });
+
+        // Cada criação entra no resumo exatamente uma vez, com ou sem reconstrução no meio
+        ResumoEstoqueResponseDto resumo = itemInventarioService.resumirPorLocalizacao(usuario);
+        assertEquals(THREADS / 2 * criacoesPorThread, resumo.totalItens());
+        assertEquals(THREADS / 2 * criacoesPorThread * 2L, resumo.quantidadeTotal());
+        assertEquals(resumo, itemInventarioService.reconstruirResumo(usuario));
+    }
+
+    private ItemInventario criarItem(int quantidade) {
+        ItemInventario item = new ItemInventario();
+        item.setNome("Item concorrido");
+        item.setQuantidade(quantidade);
+        item.setLocalizacao("Estoque Principal");
+        item.setUsuario(usuario);
+        return itemInventarioRepository.save(item);
+    }
+
+    private int quantidadeAtual(ItemInventario item) {
+        return itemInventarioRepository.findById(item.getId()).orElseThrow().getQuantidade();
+    }
+
+    private void executarEmParalelo(Runnable tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    tarefa.run();
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> futuro : futuros) {
+                futuro.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.senac.ControlaStock.application.services;
+
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioPaginaResponseDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioRequestDto;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioResponseDto;
+import com.senac.ControlaStock.application.ports.ItemInventarioServicePorts;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.repository.UsuarioRepository;
+import com.senac.ControlaStock.infra.metricas.ContadorHibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ItemInventarioServiceConsultasTest {
+
+    @Autowired
+    private ItemInventarioServicePorts itemInventarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario usuario;
+    private Usuario outroUsuario;
+    private ItemInventarioResponseDto item;
+
+    @BeforeEach
+    void criarDados() {
+        usuario = criarUsuario();
+        outroUsuario = criarUsuario();
+        item = itemInventarioService.criarItem(new ItemInventarioRequestDto("Parafuso", "M6", 3, "Prateleira A", 10, null), usuario);
+        for (int i = 0; i < 4; i++) {
+            itemInventarioService.criarItem(new ItemInventarioRequestDto("Porca " + i, null, 20, "Prateleira B", 5, null), usuario);
+        }
+    }
+
+    @Test
+    void leiturasDeItensFazemUmaConsultaSemCarregarEntidades() {
+        assertEquals(item, umaConsulta(() -> itemInventarioService.buscarPorId(item.id(), usuario)));
+        assertEquals(5, umaConsulta(() -> itemInventarioService.listarTodos(usuario)).size());
+
+        for (String ordenacao : List.of("id", "nome", "localizacao")) {
+            ItemInventarioPaginaResponseDto primeira = umaConsulta(
+                    () -> itemInventarioService.listarPagina(usuario, null, 2, ordenacao));
+            ItemInventarioPaginaResponseDto segunda = umaConsulta(
+                    () -> itemInventarioService.listarPagina(usuario, primeira.proximoCursor(), 2, ordenacao));
+            assertEquals(2, segunda.itens().size());
+        }
+
+        ItemInventarioPaginaResponseDto abaixoDoMinimo = umaConsulta(
+                () -> itemInventarioService.listarAbaixoDoMinimo(usuario, null, 10));
+        assertEquals(List.of(item), abaixoDoMinimo.itens());
+    }
+
+    @Test
+    void itemDeOutroUsuarioContinuaProibidoEInexistenteNaoEncontrado() {
+        ResponseStatusException proibido = assertThrows(ResponseStatusException.class,
+                () -> itemInventarioService.buscarPorId(item.id(), outroUsuario));
+        assertEquals(HttpStatus.FORBIDDEN, proibido.getStatusCode());
+
+        ResponseStatusException naoEncontrado = assertThrows(ResponseStatusException.class,
+                () -> itemInventarioService.removerItem(Long.MAX_VALUE, usuario, null));
+        assertEquals(HttpStatus.NOT_FOUND, naoEncontrado.getStatusCode());
+
+        assertThrows(ResponseStatusException.class, () -> itemInventarioService.removerItem(item.id(), outroUsuario, null));
+        itemInventarioService.removerItem(item.id(), usuario, null);
+        assertEquals(4, itemInventarioService.listarTodos(usuario).size());
+    }
+
+    private <T> T umaConsulta(Supplier<T> leitura) {
+        ContadorHibernate.zerar();
+        T resultado = leitura.get();
+        assertEquals(1, ContadorHibernate.consultas(), "comandos SQL");
+        assertEquals(0, ContadorHibernate.entidadesCarregadas(), "entidades carregadas");
+        return resultado;
+    }
+
+    private Usuario criarUsuario() {
+        String sufixo = UUID.randomUUID().toString().substring(0, 8);
+        Usuario novoUsuario = new Usuario();
+        novoUsuario.setNome("Consultas " + sufixo);
+        novoUsuario.setCnpj(String.format("%014d", Math.abs(sufixo.hashCode())));
+        novoUsuario.setEmail("consultas-" + sufixo + "@teste.com");
+        novoUsuario.setSenha("nao-usada");
+        return usuarioRepository.save(novoUsuario);
+    }
+}
@@ -0,0 +1,100 @@
+package com.senac.ControlaStock.application.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioRequestDto;
+import com.senac.ControlaStock.application.services.LeitorImportacaoItens.LinhaImportacao;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeitorImportacaoItensTest {
+
+    private static final int TAMANHO_MAXIMO = 60;
+
+    @Test
+    void csvComAspasVirgulasEQuebrasDeLinhaNumeraAsLinhasDoArquivo() throws IOException {
+        List<LinhaImportacao> linhas = ler("csv", """
+                nome,descricao,quantidade,localizacao,estoque_minimo
+                "Parafuso, M6","diz ""inox""\",3,A,10
+                Porca,"duas
+                linhas",20,B,
+                Arruela,,0,C,
+                """);
+
+        assertEquals(List.of(2L, 3L, 5L), linhas.stream().map(LinhaImportacao::numero).toList());
+        assertEquals(new ItemInventarioRequestDto("Parafuso, M6", "diz \"inox\"", 3, "A", 10, null), linhas.get(0).item());
+        assertEquals("duas\nlinhas", linhas.get(1).item().descricao());
+        assertNull(linhas.get(1).item().estoqueMinimo());
+        assertEquals("Arruela", linhas.get(2).item().nome());
+    }
+
+    @Test
+    void csvComCrlfEBomDoExcel() throws IOException {
+        List<LinhaImportacao> linhas = ler("csv", "\uFEFFNome,quantidade\r\n\r\nParafuso,3\r\nPorca,x\r\n");
+
+        assertEquals(2, linhas.size());
+        assertEquals(new ItemInventarioRequestDto("Parafuso", null, 3, null, null, null), linhas.get(0).item());
+        assertEquals(4, linhas.get(1).numero());
+        assertEquals("Quantidade deve ser um número inteiro", linhas.get(1).erro());
+    }
+
+    @Test
+    void csvComAspasSemFechamentoViraErroDaLinhaELeituraContinua() throws IOException {
+        String longa = "x".repeat(TAMANHO_MAXIMO);
+        List<LinhaImportacao> linhas = ler("csv", "nome,quantidade\n"
+                + "\"Parafuso,1\n" + longa + ",2\n"
+                + "Porca,3\n"
+                + longa + "y,4\n"
+                + "Arruela,5\n"
+                + "\"Martelo,6\n");
+
+        assertEquals(5, linhas.size());
+        assertEquals(2, linhas.get(0).numero());
+        assertEquals("Aspas não fechadas em " + TAMANHO_MAXIMO + " caracteres", linhas.get(0).erro());
+        assertEquals(new LinhaImportacao(4, new ItemInventarioRequestDto("Porca", null, 3, null, null, null), null), linhas.get(1));
+        assertEquals(new LinhaImportacao(5, null, "Linha excede o tamanho máximo de " + TAMANHO_MAXIMO + " caracteres"), linhas.get(2));
+        assertEquals("Arruela", linhas.get(3).item().nome());
+        assertEquals(new LinhaImportacao(7, null, "Aspas não fechadas até o fim do arquivo"), linhas.get(4));
+    }
+
+    @Test
+    void csvSemAsColunasObrigatoriasNoCabecalhoEInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> ler("csv", "nome,qtd\nParafuso,3\n"));
+        assertThrows(IllegalArgumentException.class, () -> ler("csv", ""));
+    }
+
+    @Test
+    void ndjsonComLinhasEmBrancoJsonInvalidoELinhaLonga() throws IOException {
+        List<LinhaImportacao> linhas = ler("ndjson", "\uFEFF{\"nome\":\"Parafuso\",\"quantidade\":3}\r\n"
+                + "\n"
+                + "{\"nome\":\n"
+                + "{\"nome\":\"" + "x".repeat(TAMANHO_MAXIMO) + "\",\"quantidade\":1}\n"
+                + "{\"nome\":\"Porca\",\"quantidade\":20}");
+
+        assertEquals(List.of(1L, 3L, 4L, 5L), linhas.stream().map(LinhaImportacao::numero).toList());
+        assertEquals(new ItemInventarioRequestDto("Parafuso", null, 3, null, null, null), linhas.get(0).item());
+        assertTrue(linhas.get(1).erro().startsWith("JSON inválido"));
+        assertEquals("Linha excede o tamanho máximo de " + TAMANHO_MAXIMO + " caracteres", linhas.get(2).erro());
+        assertEquals("Porca", linhas.get(3).item().nome());
+    }
+
+    private static List<LinhaImportacao> ler(String formato, String conteudo) throws IOException {
+        LeitorImportacaoItens leitor = LeitorImportacaoItens.para(formato,
+                new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), new ObjectMapper(), TAMANHO_MAXIMO);
+        List<LinhaImportacao> linhas = new ArrayList<>();
+        LinhaImportacao linha;
+        while ((linha = leitor.proxima()) != null) {
+            linhas.add(linha);
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,145 @@
+package com.senac.ControlaStock.application.services;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.senac.ControlaStock.domain.entities.Token;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.infra.persistencia.memoria.TokenRepositoryEmMemoria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Cache de tokens validados, limite por usuário e limpeza dos expirados sobre o repositório em
+ * memória, que conta as consultas pelo hash (para distinguir uma validação servida pelo cache de uma
+ * que foi ao banco) e o tamanho de cada lote removido.
+ */
+class TokenServiceTest {
+
+    private static final String SEGREDO = "segredo-de-teste-com-tamanho-suficiente-para-hmac";
+
+    private final TokensContados tokens = new TokensContados();
+    private final TokenService tokenService = new TokenService();
+    private Usuario usuario;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(tokenService, "secret", SEGREDO);
+        ReflectionTestUtils.setField(tokenService, "tempo_expiracao", 60L);
+        ReflectionTestUtils.setField(tokenService, "tamanhoMaximoCache", 100L);
+        ReflectionTestUtils.setField(tokenService, "ttlMaximoCache", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(tokenService, "maximoPorUsuario", 10);
+        ReflectionTestUtils.setField(tokenService, "tamanhoLoteLimpeza", 1000);
+        ReflectionTestUtils.setField(tokenService, "tokenRepository", tokens);
+        ReflectionTestUtils.invokeMethod(tokenService, "inicializar");
+
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("token@teste.com");
+    }
+
+    @Test
+    void tokenEmCacheERecusadoDepoisDoLogout() {
+        String token = tokenService.gerarToken(usuario);
+
+        assertEquals(usuario.getEmail(), tokenService.validarToken(token));
+        assertEquals(usuario.getEmail(), tokenService.validarToken(token));
+        assertEquals(1, tokens.consultasPorHash, "a segunda validação deveria vir do cache");
+
+        tokenService.revogarToken(token);
+
+        assertNull(tokenService.validarToken(token));
+    }
+
+    @Test
+    void tokenExpiradoNaoEServidoPeloCache() throws Exception {
+        // O exp do JWT é em segundos: entre 1 e 2 segundos a partir de agora
+        Instant expiraEm = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(2);
+        String token = JWT.create()
+                .withIssuer("CONTROLASTOCKER")
+                .withSubject(usuario.getEmail())
+                .withExpiresAt(expiraEm)
+                .sign(Algorithm.HMAC256(SEGREDO));
+        tokens.save(new Token(null, hash(token), expiraEm, usuario));
+
+        assertEquals(usuario.getEmail(), tokenService.validarToken(token));
+
+        Thread.sleep(Duration.between(Instant.now(), expiraEm).plusMillis(1100).toMillis());
+
+        assertNull(tokenService.validarToken(token));
+    }
+
+    @Test
+    void acimaDoLimitePorUsuarioOsTokensMaisAntigosSaoRevogados() {
+        ReflectionTestUtils.setField(tokenService, "maximoPorUsuario", 3);
+        String primeiro = tokenService.gerarToken(usuario);
+        String segundo = tokenService.gerarToken(usuario);
+        String terceiro = tokenService.gerarToken(usuario);
+        tokenService.validarToken(primeiro);
+        tokenService.validarToken(segundo);
+
+        String quarto = tokenService.gerarToken(usuario);
+        String quinto = tokenService.gerarToken(usuario);
+
+        // Os revogados saem também do cache
+        assertNull(tokenService.validarToken(primeiro));
+        assertNull(tokenService.validarToken(segundo));
+        assertEquals(usuario.getEmail(), tokenService.validarToken(terceiro));
+        assertEquals(usuario.getEmail(), tokenService.validarToken(quarto));
+        assertEquals(usuario.getEmail(), tokenService.validarToken(quinto));
+        assertEquals(3, tokens.count());
+    }
+
+    @Test
+    void expiradosSaoRemovidosEmLotes() {
+        ReflectionTestUtils.setField(tokenService, "tamanhoLoteLimpeza", 2);
+        Instant passado = Instant.now().minus(Duration.ofHours(1));
+        for (int i = 0; i < 5; i++) {
+            tokens.save(new Token(null, "expirado-" + i, passado.plusSeconds(i), usuario));
+        }
+        String valido = tokenService.gerarToken(usuario);
+
+        tokenService.removerExpirados();
+
+        assertEquals(List.of(2, 2, 1), tokens.lotesRemovidos);
+        assertEquals(1, tokens.count());
+        assertEquals(usuario.getEmail(), tokenService.validarToken(valido));
+    }
+
+    private static String hash(String token) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class TokensContados extends TokenRepositoryEmMemoria {
+
+        private int consultasPorHash;
+        private final List<Integer> lotesRemovidos = new ArrayList<>();
+
+        @Override
+        public boolean existsByHash(String hash) {
+            consultasPorHash++;
+            return super.existsByHash(hash);
+        }
+
+        @Override
+        public void deleteAllByIdInBatch(Iterable<Long> ids) {
+            List<Long> lote = new ArrayList<>();
+            ids.forEach(lote::add);
+            lotesRemovidos.add(lote.size());
+            super.deleteAllByIdInBatch(lote);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.senac.ControlaStock.application.services;
+
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.repository.UsuarioRepository;
+import com.senac.ControlaStock.infra.metricas.ContadorHibernate;
+import com.senac.ControlaStock.infra.persistencia.memoria.UsuarioRepositoryEmMemoria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UsuarioCacheTest {
+
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void criarUsuario() {
+        String sufixo = UUID.randomUUID().toString().substring(0, 8);
+        Usuario novoUsuario = new Usuario();
+        novoUsuario.setNome("Cache " + sufixo);
+        novoUsuario.setCnpj(String.format("%014d", Math.abs(sufixo.hashCode())));
+        novoUsuario.setEmail("cache-" + sufixo + "@teste.com");
+        novoUsuario.setSenha("nao-usada");
+        usuario = usuarioRepository.save(novoUsuario);
+    }
+
+    @Test
+    void cacheDeSegundoNivelEInvalidadoJuntoComOCacheDeUsuarios() {
+        usuarioRepository.findById(usuario.getId());
+
+        // Carregado uma vez, o usuário vem do cache de segundo nível, sem SQL
+        ContadorHibernate.zerar();
+        assertEquals(usuario.getEmail(), usuarioRepository.findById(usuario.getId()).orElseThrow().getEmail());
+        assertEquals(0, ContadorHibernate.consultas(), "comandos SQL");
+
+        usuarioCache.invalidar(usuario.getEmail());
+
+        ContadorHibernate.zerar();
+        assertEquals(usuario.getEmail(), usuarioRepository.findById(usuario.getId()).orElseThrow().getEmail());
+        assertEquals(1, ContadorHibernate.consultas(), "comandos SQL");
+    }
+
+    @Test
+    void trocaDeSenhaPeloUpdateEmMassaNaoDeixaOUsuarioAntigoNoCache() {
+        usuarioCache.buscarPorEmail(usuario.getEmail());
+        usuarioRepository.findById(usuario.getId());
+
+        usuarioRepository.atualizarSenha(usuario.getEmail(), "hash-novo");
+        usuarioCache.invalidar(usuario.getEmail());
+
+        assertEquals("hash-novo", usuarioRepository.findById(usuario.getId()).orElseThrow().getSenha());
+        assertEquals("hash-novo", usuarioCache.buscarPorEmail(usuario.getEmail()).orElseThrow().getSenha());
+    }
+
+    // Uma leitura que começou antes da invalidação termina depois dela com o usuário antigo: ele é
+    // devolvido a quem pediu, mas não pode ficar no cache
+    @Test
+    void leituraIniciadaAntesDaInvalidacaoNaoGuardaOUsuarioAntigo() throws Exception {
+        LeituraRetida repositorio = new LeituraRetida();
+        Usuario salvo = new Usuario();
+        salvo.setNome(usuario.getNome());
+        salvo.setCnpj(usuario.getCnpj());
+        salvo.setEmail(usuario.getEmail());
+        salvo.setSenha("hash-antigo");
+        salvo.setRole(usuario.getRole());
+        repositorio.save(salvo);
+
+        UsuarioCache cache = new UsuarioCache();
+        ReflectionTestUtils.setField(cache, "usuarioRepository", repositorio);
+        ReflectionTestUtils.setField(cache, "tamanhoMaximo", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(2));
+        ReflectionTestUtils.invokeMethod(cache, "inicializar");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<Usuario>> emAndamento = executor.submit(() -> cache.buscarPorEmail(salvo.getEmail()));
+            assertTrue(repositorio.leu.await(5, TimeUnit.SECONDS));
+
+            repositorio.atualizarSenha(salvo.getEmail(), "hash-novo");
+            cache.invalidar(salvo.getEmail());
+            repositorio.continuar.countDown();
+
+            assertEquals("hash-antigo", emAndamento.get(5, TimeUnit.SECONDS).orElseThrow().getSenha());
+        } finally {
+            repositorio.continuar.countDown();
+            executor.shutdownNow();
+        }
+
+        assertEquals("hash-novo", cache.buscarPorEmail(salvo.getEmail()).orElseThrow().getSenha());
+        assertEquals(2, repositorio.leituras.get());
+    }
+
+    // A primeira busca por email lê a linha e espera antes de devolvê-la
+    private static final class LeituraRetida extends UsuarioRepositoryEmMemoria {
+
+        private final CountDownLatch leu = new CountDownLatch(1);
+        private final CountDownLatch continuar = new CountDownLatch(1);
+        private final AtomicInteger leituras = new AtomicInteger();
+
+        @Override
+        public Optional<Usuario> findByEmail(String email) {
+            Optional<Usuario> encontrado = super.findByEmail(email);
+            if (leituras.incrementAndGet() == 1) {
+                leu.countDown();
+                try {
+                    continuar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return encontrado;
+        }
+    }
+}
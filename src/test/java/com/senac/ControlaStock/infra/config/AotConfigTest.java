@@ -0,0 +1,57 @@
+package com.senac.ControlaStock.infra.config;
+
+import com.senac.ControlaStock.application.dto.itemInventario.ItemInventarioResponseDto;
+import com.senac.ControlaStock.application.dto.movimentacao.MovimentacaoLoteRequestDto;
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.entities.Token;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.repository.TokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.projection.TargetAware;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere as dicas do build AOT sem gerar a imagem: o que falta aqui só apareceria como erro em
+ * tempo de execução no binário nativo.
+ */
+class AotConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void registrar() {
+        new AotConfig.Dicas().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entidadesComCamposConstrutorEAcessores() throws NoSuchMethodException {
+        for (Class<?> entidade : new Class<?>[]{Usuario.class, ItemInventario.class, Token.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entidade).test(hints), entidade.getName());
+            assertTrue(RuntimeHintsPredicates.reflection().onConstructor(entidade.getDeclaredConstructor()).invoke().test(hints));
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Usuario.class, "getEmail").invoke().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(ItemInventario.class, "quantidade").test(hints));
+    }
+
+    @Test
+    void dtosEAsClassesAninhadasDosRecords() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ItemInventarioResponseDto.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ItemInventarioResponseDto.class, "nome").invoke().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(MovimentacaoLoteRequestDto.class).test(hints));
+    }
+
+    @Test
+    void javaJwtEProjecoesEmInterface() {
+        for (String classe : AotConfig.CLASSES_JAVA_JWT) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(classe)).test(hints), classe);
+        }
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(AopProxyUtils.completeJdkProxyInterfaces(
+                TokenRepository.TokenAtivo.class, TargetAware.class)).test(hints));
+    }
+}
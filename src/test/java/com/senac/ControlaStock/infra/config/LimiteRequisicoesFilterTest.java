@@ -0,0 +1,100 @@
+package com.senac.ControlaStock.infra.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Semáforo do modo de threads virtuais com uma vaga só: enquanto uma requisição segura a vaga, a
+ * seguinte espera o tempo máximo e recebe 503; depois que a vaga é liberada, volta a passar.
+ */
+class LimiteRequisicoesFilterTest {
+
+    private final LimiteRequisicoesFilter filtro = new LimiteRequisicoesFilter();
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(filtro, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filtro, "maximoRequisicoes", 1);
+        ReflectionTestUtils.setField(filtro, "esperaMaxima", Duration.ofMillis(100));
+        ReflectionTestUtils.invokeMethod(filtro, "inicializar");
+    }
+
+    @Test
+    void comOLimiteOcupadoARequisicaoSeguinteRecebe503() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        MockFilterChain cadeiaPresa = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                dentro.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            MockHttpServletResponse primeira = new MockHttpServletResponse();
+            Future<?> emAndamento = executor.submit(() -> {
+                filtro.doFilter(requisicao(), primeira, cadeiaPresa);
+                return null;
+            });
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse recusada = new MockHttpServletResponse();
+            filtro.doFilter(requisicao(), recusada, new MockFilterChain());
+            assertEquals(503, recusada.getStatus());
+            assertEquals("1", recusada.getHeader(HttpHeaders.RETRY_AFTER));
+
+            liberar.countDown();
+            emAndamento.get(5, TimeUnit.SECONDS);
+            assertEquals(200, primeira.getStatus());
+
+            MockHttpServletResponse depois = new MockHttpServletResponse();
+            filtro.doFilter(requisicao(), depois, new MockFilterChain());
+            assertEquals(200, depois.getStatus());
+        } finally {
+            liberar.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void healthEActuatorNaoDisputamVaga() throws Exception {
+        ReflectionTestUtils.setField(filtro, "vagas", new Semaphore(0, true));
+
+        MockHttpServletRequest health = requisicao();
+        health.setRequestURI("/actuator/health");
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        filtro.doFilter(health, resposta, new MockFilterChain());
+
+        assertEquals(200, resposta.getStatus());
+    }
+
+    private static MockHttpServletRequest requisicao() {
+        return new MockHttpServletRequest("GET", "/api/inventario/pagina");
+    }
+}
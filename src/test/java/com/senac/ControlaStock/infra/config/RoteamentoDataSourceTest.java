@@ -0,0 +1,142 @@
+package com.senac.ControlaStock.infra.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Regra de escolha entre primário e réplica, com o estado da transação montado direto no
+ * TransactionSynchronizationManager (como o JpaTransactionManager faz) e pools falsos que só contam
+ * as conexões pedidas.
+ */
+class RoteamentoDataSourceTest {
+
+    private static final String LEITURA_DA_APLICACAO =
+            "com.senac.ControlaStock.application.services.ItemInventarioService.listarTodos";
+
+    private final PoolContado primario = new PoolContado();
+    private final PoolContado replica = new PoolContado();
+    private final RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, replica,
+            new ReplicaPropriedades("jdbc:postgresql://replica/db", null, null, 10,
+                    Duration.ofSeconds(1), Duration.ofMinutes(5), Duration.ofMinutes(5)),
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void limpar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.clear();
+        RoteamentoDataSource.limparCliente();
+    }
+
+    @Test
+    void leituraDaAplicacaoEmTransacaoSomenteLeituraVaiParaAReplica() throws SQLException {
+        transacao(LEITURA_DA_APLICACAO, true);
+        roteamento.getConnection();
+
+        assertEquals(0, primario.conexoes);
+        assertEquals(1, replica.conexoes);
+    }
+
+    @Test
+    void semTransacaoEscritaOuTransacaoDoRepositorioFicamNoPrimario() throws SQLException {
+        roteamento.getConnection();
+
+        transacao("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById", true);
+        roteamento.getConnection();
+
+        // Nome fora do pacote da aplicação, mesmo com prefixo parecido
+        transacao("com.senac.ControlaStock.applicationx.Servico.listar", true);
+        roteamento.getConnection();
+
+        transacao(LEITURA_DA_APLICACAO, false);
+        roteamento.getConnection();
+
+        assertEquals(4, primario.conexoes);
+        assertEquals(0, replica.conexoes);
+    }
+
+    @Test
+    void depoisDeEscreverOClienteLeDoPrimarioEOsOutrosDaReplica() throws SQLException {
+        RoteamentoDataSource.definirCliente("a@teste.com");
+        transacao("com.senac.ControlaStock.application.services.ItemInventarioService.criarItem", false);
+        roteamento.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(
+                s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        transacao(LEITURA_DA_APLICACAO, true);
+        roteamento.getConnection();
+        assertEquals(2, primario.conexoes);
+        assertEquals(0, replica.conexoes);
+
+        RoteamentoDataSource.definirCliente("b@teste.com");
+        roteamento.getConnection();
+        assertEquals(1, replica.conexoes);
+    }
+
+    @Test
+    void replicaIndisponivelCaiParaOPrimarioSemTentarDeNovoNaEspera() throws SQLException {
+        replica.falhar = true;
+        transacao(LEITURA_DA_APLICACAO, true);
+
+        roteamento.getConnection();
+        roteamento.getConnection();
+
+        assertEquals(1, replica.tentativas);
+        assertEquals(2, primario.conexoes);
+    }
+
+    @Test
+    void credenciaisExplicitasVaoParaOPrimario() throws SQLException {
+        transacao(LEITURA_DA_APLICACAO, true);
+        roteamento.getConnection("usuario", "senha");
+
+        assertEquals(1, primario.conexoes);
+        assertEquals("usuario", primario.usuario);
+        assertEquals(0, replica.tentativas);
+    }
+
+    private static void transacao(String nome, boolean somenteLeitura) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionName(nome);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(somenteLeitura);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+    }
+
+    private static final class PoolContado extends AbstractDataSource {
+
+        private int tentativas;
+        private int conexoes;
+        private boolean falhar;
+        private String usuario;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            tentativas++;
+            if (falhar) {
+                throw new SQLTransientConnectionException("Tempo esgotado");
+            }
+            conexoes++;
+            return null;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            usuario = username;
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.senac.ControlaStock.infra.external;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senac.ControlaStock.application.dto.endereco.EnderecoResponseDto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o adapter contra um servidor HTTP local que simula o ViaCEP.
+ */
+class ViaCepServiceTest {
+
+    private static final String ENDERECO_JSON = """
+            {"cep":"01001-000","logradouro":"Praça da Sé","complemento":"lado ímpar","bairro":"Sé",
+             "localidade":"São Paulo","uf":"SP","ibge":"3550308","ddd":"11"}""";
+
+    private HttpServer servidor;
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private volatile int atrasoMillis = 0;
+    private volatile boolean foraDoAr = false;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.createContext("/ws/", this::responder);
+        servidor.start();
+    }
+
+    @AfterEach
+    void pararServidor() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void enderecoEncontradoFicaEmCache() {
+        ViaCepService service = criarService(Duration.ofDays(1), Duration.ofSeconds(2));
+
+        EnderecoResponseDto primeiro = service.buscarEnderecoPorCep("01001-000");
+        EnderecoResponseDto segundo = service.buscarEnderecoPorCep("01001000");
+
+        assertEquals("Praça da Sé", primeiro.logradouro());
+        assertEquals(primeiro, segundo);
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void cepInexistenteTambemFicaEmCache() {
+        ViaCepService service = criarService(Duration.ofDays(1), Duration.ofSeconds(2));
+
+        for (int i = 0; i < 3; i++) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> service.buscarEnderecoPorCep("99999999"));
+            assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        }
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void consultasSimultaneasAoMesmoCepGeramUmaUnicaChamada() {
+        ViaCepService service = criarService(Duration.ofDays(1), Duration.ofSeconds(2));
+        atrasoMillis = 300;
+
+        List<CompletableFuture<EnderecoResponseDto>> consultas = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            consultas.add(service.buscarEnderecoPorCepAsync("01001000"));
+        }
+        consultas.forEach(CompletableFuture::join);
+
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void respostaLentaEstouraOTimeout() {
+        ViaCepService service = criarService(Duration.ofDays(1), Duration.ofMillis(200));
+        atrasoMillis = 2_000;
+
+        long inicio = System.nanoTime();
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.buscarEnderecoPorCep("01001000"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toMillis() < 1_500);
+    }
+
+    @Test
+    void circuitoAbertoServeEntradaVencidaSemChamarOViaCep() throws InterruptedException {
+        ViaCepService service = criarService(Duration.ofMillis(50), Duration.ofSeconds(2));
+        EnderecoResponseDto original = service.buscarEnderecoPorCep("01001000");
+        Thread.sleep(100);
+
+        foraDoAr = true;
+        // Três falhas abrem o circuito; em todas a entrada vencida é servida
+        for (int i = 0; i < 3; i++) {
+            assertEquals(original, service.buscarEnderecoPorCep("01001000"));
+        }
+        int chamadasAteAbrir = chamadas.get();
+
+        assertEquals(original, service.buscarEnderecoPorCep("01001000"));
+        assertEquals(chamadasAteAbrir, chamadas.get());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.buscarEnderecoPorCep("20040020"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+    }
+
+    private ViaCepService criarService(Duration ttl, Duration timeoutResposta) {
+        ViaCepPropriedades propriedades = new ViaCepPropriedades(
+                "http://localhost:" + servidor.getAddress().getPort() + "/ws/",
+                Duration.ofSeconds(1), timeoutResposta, 1_000,
+                ttl, Duration.ofMinutes(10), Duration.ofDays(7),
+                3, Duration.ofMinutes(1));
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return new ViaCepService(objectMapper, propriedades);
+    }
+
+    private void responder(HttpExchange exchange) throws IOException {
+        chamadas.incrementAndGet();
+        try {
+            if (atrasoMillis > 0) {
+                Thread.sleep(atrasoMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (foraDoAr) {
+            exchange.sendResponseHeaders(502, -1);
+            exchange.close();
+            return;
+        }
+
+        String corpo = exchange.getRequestURI().getPath().contains("01001000") ? ENDERECO_JSON : "{\"erro\": true}";
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.senac.ControlaStock.infra.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senac.ControlaStock.domain.entities.ItemInventario;
+import com.senac.ControlaStock.domain.entities.TipoMovimentacao;
+import com.senac.ControlaStock.domain.entities.Usuario;
+import com.senac.ControlaStock.domain.entities.VersaoInventario;
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent;
+import com.senac.ControlaStock.domain.events.EstoqueAlteradoEvent.AlteracaoEstoque;
+import com.senac.ControlaStock.infra.persistencia.memoria.VersaoInventarioRepositoryEmMemoria;
+import com.senac.ControlaStock.infra.sse.CanalSse.EventoSse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Retomada e ordem do feed, com o canal trocado por um que só registra o que recebeu.
+ */
+class AlteracoesInventarioSseServiceTest {
+
+    private static final Long USUARIO_ID = 1L;
+
+    private final VersaoInventarioRepositoryEmMemoria versoes = new VersaoInventarioRepositoryEmMemoria();
+    private final CanalGravado canal = new CanalGravado();
+    private final AlteracoesInventarioSseService service = new AlteracoesInventarioSseService();
+    private final Usuario usuario = new Usuario();
+
+    @BeforeEach
+    void configurar() {
+        usuario.setId(USUARIO_ID);
+        ReflectionTestUtils.setField(service, "canalAlteracoesInventario", canal);
+        ReflectionTestUtils.setField(service, "versaoInventarioRepository", versoes);
+        ReflectionTestUtils.setField(service, "tamanhoHistorico", 1000);
+        ReflectionTestUtils.setField(service, "retencaoHistorico", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(service, "maximoItensPorOperacao", 100);
+        ReflectionTestUtils.invokeMethod(service, "inicializar");
+    }
+
+    @Test
+    void retomadaEntregaAsVersoesSeguintesComIdSoNoUltimoEventoDaOperacao() {
+        commit(1, 10L, 11L);
+        commit(2, 10L);
+
+        assertEquals(List.of("item:-", "item:1", "item:2"), descrever(assinar("0")));
+        assertEquals(List.of("item:2"), descrever(assinar("1")));
+        assertEquals(List.of(), assinar("2"));
+    }
+
+    @Test
+    void conexaoNovaOuIdInvalidoRessincronizamNaVersaoAtual() {
+        commit(1, 10L);
+
+        assertEquals(List.of("ressincronizar:1"), descrever(assinar(null)));
+        assertEquals(List.of("ressincronizar:1"), descrever(assinar("abc")));
+        assertEquals(List.of("ressincronizar:1"), descrever(assinar("7")));
+    }
+
+    @Test
+    void versaoQueNaoPassouPorEsteNoRessincroniza() {
+        // A versão 2 foi feita em outro nó (ou antes de um reinício)
+        commit(1, 10L);
+        versoes.save(new VersaoInventario(USUARIO_ID, 2L));
+        commit(3, 10L);
+
+        assertEquals(List.of("ressincronizar:3"), descrever(assinar("1")));
+        assertEquals(List.of(), assinar("3"));
+    }
+
+    @Test
+    void clienteEmDiaComOBancoRetomaSemHistorico() {
+        versoes.save(new VersaoInventario(USUARIO_ID, 5L));
+
+        assertEquals(List.of(), assinar("5"));
+        assertEquals(List.of("ressincronizar:5"), descrever(assinar("4")));
+    }
+
+    @Test
+    void operacaoQueChegaDepoisDeUmaVersaoMaisNovaNaoEEntregueForaDeOrdem() {
+        // Commits em ordem de versão, listeners de depois do commit fora dela
+        versoes.save(new VersaoInventario(USUARIO_ID, 2L));
+        service.publicar(evento(2, 10L));
+        service.publicar(evento(1, 10L, 11L));
+
+        assertEquals(List.of("item:2", "ressincronizar:2"), descrever(canal.publicados));
+        // No histórico cada operação fica na posição da sua versão
+        assertEquals(List.of("item:-", "item:1", "item:2"), descrever(assinar("0")));
+        // Quem parou na 2 pode não ter a 1
+        assertEquals(List.of("ressincronizar:2"), descrever(assinar("2")));
+    }
+
+    @Test
+    void conexaoAdiantadaTornaAtrasadaAOperacaoAindaNaoPublicada() {
+        // A versão 1 já tem commit, mas o listener ainda não rodou quando o cliente conecta
+        versoes.save(new VersaoInventario(USUARIO_ID, 1L));
+        assertEquals(List.of("ressincronizar:1"), descrever(assinar(null)));
+
+        service.publicar(evento(1, 10L));
+        assertEquals(List.of("ressincronizar:1"), descrever(canal.publicados));
+    }
+
+    private void commit(long versao, Long... itens) {
+        versoes.save(new VersaoInventario(USUARIO_ID, versao));
+        service.publicar(evento(versao, itens));
+    }
+
+    private List<EventoSse> assinar(String ultimoEventoId) {
+        service.assinar(usuario, ultimoEventoId);
+        return canal.iniciais;
+    }
+
+    private EstoqueAlteradoEvent evento(long versao, Long... itens) {
+        List<AlteracaoEstoque> alteracoes = Arrays.stream(itens).map(itemId -> {
+            ItemInventario item = new ItemInventario();
+            item.setId(itemId);
+            item.setNome("Item " + itemId);
+            item.setQuantidade((int) versao);
+            item.setLocalizacao("A");
+            return new AlteracaoEstoque(itemId, TipoMovimentacao.ENTRADA, 1, (int) versao, "A", "A", item);
+        }).toList();
+        return new EstoqueAlteradoEvent(USUARIO_ID, versao, Instant.now(), alteracoes);
+    }
+
+    // "nome:id", com "-" para os eventos sem id
+    private static List<String> descrever(List<EventoSse> eventos) {
+        return eventos.stream()
+                .map(evento -> evento.nome() + ":" + (evento.id() != null ? evento.id() : "-"))
+                .toList();
+    }
+
+    private static final class CanalGravado extends CanalSse {
+
+        private List<EventoSse> iniciais;
+        private final List<EventoSse> publicados = new ArrayList<>();
+
+        private CanalGravado() {
+            super("teste", new SsePropriedades(2048, 5, Duration.ofSeconds(15), Duration.ofMinutes(30)),
+                    new ObjectMapper(), new SimpleMeterRegistry());
+        }
+
+        @Override
+        public SseEmitter assinar(Long usuarioId, List<EventoSse> iniciais) {
+            this.iniciais = iniciais;
+            return null;
+        }
+
+        @Override
+        public void publicar(Long usuarioId, EventoSse evento) {
+            publicados.add(evento);
+        }
+    }
+}